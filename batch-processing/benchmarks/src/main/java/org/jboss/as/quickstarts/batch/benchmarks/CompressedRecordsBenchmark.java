@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.jboss.as.quickstarts.batch.job.LineReader;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+//This benchmark compares reading all the lines of an import file, as the lines read mode of the RecordsReader does, when the file is plain text and when it is gzip compressed.
+//Besides the time, it reports the bytes read from disk per import, in the diskBytes counter.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressedRecordsBenchmark {
+
+    @Param({"1000000"})
+    public int records;
+
+    @Param({"false", "true"})
+    public boolean compressed;
+
+    private File file;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class DiskCounters {
+
+        public long diskBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            diskBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        // a file like the ones generated by the BatchController
+        file = File.createTempFile("records", compressed ? ".txt.gz" : ".txt");
+        Random random = new Random(42);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(compressed ? new GZIPOutputStream(new FileOutputStream(file)) : new FileOutputStream(file)))) {
+            for (int x = 0; x < records; x++) {
+                String name = random.ints('a', 'z' + 1).limit(10)
+                        .collect(StringBuilder::new, (sb, i) -> sb.append((char) i), StringBuilder::append).toString();
+                String phone = random.ints('0', '9' + 1).limit(9)
+                        .collect(StringBuilder::new, (sb, i) -> sb.append((char) i), StringBuilder::append).toString();
+                writer.write((x + 1) + "|" + name + "|" + phone + "\n");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public void readLines(DiskCounters counters, Blackhole blackhole) throws IOException {
+        try (LineReader reader = new LineReader(file, Charset.defaultCharset(), 0)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                blackhole.consume(line);
+            }
+            counters.diskBytes += reader.getFileOffset();
+        }
+    }
+}
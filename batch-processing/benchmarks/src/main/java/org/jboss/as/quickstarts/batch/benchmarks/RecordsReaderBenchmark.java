@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.quickstarts.batch.job.LineReader;
+import org.jboss.as.quickstarts.batch.job.MappedRecordsParser;
+import org.jboss.as.quickstarts.batch.model.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+//This benchmark compares parsing a whole import file into contacts, with LineReader.readLine() and String.split(), as the lines read mode of the RecordsReader does,
+//and with the MappedRecordsParser, as the mapped read mode does. Run it with "-prof gc" to also compare the allocations per record.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecordsReaderBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int records;
+
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        // a file like the ones generated by the BatchController
+        file = File.createTempFile("records", ".txt");
+        Random random = new Random(42);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, false))) {
+            for (int x = 0; x < records; x++) {
+                String name = random.ints('a', 'z' + 1).limit(10)
+                        .collect(StringBuilder::new, (sb, i) -> sb.append((char) i), StringBuilder::append).toString();
+                String phone = random.ints('0', '9' + 1).limit(9)
+                        .collect(StringBuilder::new, (sb, i) -> sb.append((char) i), StringBuilder::append).toString();
+                writer.write((x + 1) + "|" + name + "|" + phone + "\n");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public void splitLines(Blackhole blackhole) throws IOException {
+        try (LineReader br = new LineReader(file, Charset.defaultCharset(), 0)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] fields = line.split("[|]");
+                Contact contact = new Contact();
+                contact.setId(Integer.parseInt(fields[0]));
+                contact.setName(fields[1]);
+                contact.setPhone(fields[2]);
+                blackhole.consume(contact);
+            }
+        }
+    }
+
+    @Benchmark
+    public void parseMapped(Blackhole blackhole) throws IOException {
+        try (MappedRecordsParser parser = new MappedRecordsParser(file, Charset.defaultCharset(), (byte) '|', 0, Long.MAX_VALUE)) {
+            Contact contact;
+            while ((contact = parser.next()) != null) {
+                blackhole.consume(contact);
+            }
+        }
+    }
+}
@@ -42,6 +42,8 @@ import jakarta.inject.Inject;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 
+import org.jboss.as.quickstarts.batch.metrics.JobMetricsRegistry;
+
 //The @Model stereotype is a convenience mechanism to make this a request-scoped bean that has an
 //EL name
 //Read more about the @Model stereotype in this FAQ:
@@ -55,10 +57,27 @@ public class BatchController {
     @Inject
     private Logger log;
 
+    @Inject
+    private JobMetricsRegistry metricsRegistry;
+
     private String fileName = "temp-file.txt";
 
     private boolean generateWithError;
 
+    private boolean partitioned;
+
+    @Min(1)
+    @Max(10000)
+    private Integer itemCount = 3;
+
+    private String writeMode = "persist";
+
+    private String readMode = "lines";
+
+    private String loadMode = "delete";
+
+    private boolean adaptiveChunkSize;
+
     @Min(0)
     @Max(1000000)
     private Long numRecords = 10L;
@@ -106,7 +125,13 @@ public class BatchController {
         JobOperator jobOperator = BatchRuntime.getJobOperator();
         Properties jobParameters = new Properties();
         jobParameters.setProperty("fileName", getFileName());
-        long execID = jobOperator.start("import-file", jobParameters);
+        jobParameters.setProperty("itemCount", String.valueOf(getItemCount()));
+        jobParameters.setProperty("writeMode", getWriteMode());
+        jobParameters.setProperty("readMode", getReadMode());
+        jobParameters.setProperty("loadMode", getLoadMode());
+        // the chunk size then starts at itemCount, and adapts to take about a second per chunk
+        jobParameters.setProperty("checkpointPolicy", adaptiveChunkSize ? "custom" : "item");
+        long execID = jobOperator.start(getJobName(), jobParameters);
         facesContext.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO, "New job execution #" + execID + " running. Importing file:" + getFileName(), null));
     }
 
@@ -120,31 +145,33 @@ public class BatchController {
         });
         Map<Long, JobExecution> jobIntances = new HashMap<>();
         JobOperator jobOperator = BatchRuntime.getJobOperator();
-        try {
-            List<JobInstance> instances = jobOperator.getJobInstances("import-file", 0, jobOperator.getJobInstanceCount("import-file"));
-            for (JobInstance ji : instances) {
-                List<JobExecution> executions = jobOperator.getJobExecutions(ji);
-                for (JobExecution jobExecution : executions) {
-                    // initialize the map if null
-                    if (jobIntances.get(ji.getInstanceId()) == null) {
-                        jobIntances.put(ji.getInstanceId(), jobExecution);
-                    }
-                    // Update the jobExecution if is newer
-                    JobExecution existing = jobIntances.get(ji.getInstanceId());
-                    if (jobExecution.getExecutionId() > existing.getExecutionId()) {
-                        jobIntances.put(ji.getInstanceId(), jobExecution);
+        for (String jobName : new String[] { "import-file", "import-file-partitioned" }) {
+            try {
+                List<JobInstance> instances = jobOperator.getJobInstances(jobName, 0, jobOperator.getJobInstanceCount(jobName));
+                for (JobInstance ji : instances) {
+                    List<JobExecution> executions = jobOperator.getJobExecutions(ji);
+                    for (JobExecution jobExecution : executions) {
+                        // initialize the map if null
+                        if (jobIntances.get(ji.getInstanceId()) == null) {
+                            jobIntances.put(ji.getInstanceId(), jobExecution);
+                        }
+                        // Update the jobExecution if is newer
+                        JobExecution existing = jobIntances.get(ji.getInstanceId());
+                        if (jobExecution.getExecutionId() > existing.getExecutionId()) {
+                            jobIntances.put(ji.getInstanceId(), jobExecution);
+                        }
                     }
                 }
+            } catch (NoSuchJobException e) {
+                // It's ok if when doesn't have any jobs yet to show
             }
-            for (Long instaceId : jobIntances.keySet()) {
-                JobExecution jobExecution = jobIntances.get(instaceId);
-                JobInstance ji = jobOperator.getJobInstance(jobExecution.getExecutionId());
-                Properties parameters = jobOperator.getParameters(jobExecution.getExecutionId());
-                jobsData.add(new JobData(ji.getInstanceId(), jobExecution.getExecutionId(), ji.getJobName(), jobExecution.getCreateTime(), jobExecution.getEndTime(), jobExecution
-                    .getBatchStatus(), parameters, jobExecution.getExitStatus()));
-            }
-        } catch (NoSuchJobException e) {
-            // It's ok if when doesn't have any jobs yet to show
+        }
+        for (Long instaceId : jobIntances.keySet()) {
+            JobExecution jobExecution = jobIntances.get(instaceId);
+            JobInstance ji = jobOperator.getJobInstance(jobExecution.getExecutionId());
+            Properties parameters = jobOperator.getParameters(jobExecution.getExecutionId());
+            jobsData.add(new JobData(ji.getInstanceId(), jobExecution.getExecutionId(), ji.getJobName(), jobExecution.getCreateTime(), jobExecution.getEndTime(), jobExecution
+                .getBatchStatus(), parameters, jobExecution.getExitStatus(), metricsRegistry.find(jobExecution.getExecutionId())));
         }
 
         return jobsData;
@@ -174,6 +201,59 @@ public class BatchController {
         this.generateWithError = generateWithError;
     }
 
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    public void setPartitioned(boolean partitioned) {
+        this.partitioned = partitioned;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public String getWriteMode() {
+        return writeMode;
+    }
+
+    public void setWriteMode(String writeMode) {
+        this.writeMode = writeMode;
+    }
+
+    public String getReadMode() {
+        return readMode;
+    }
+
+    public void setReadMode(String readMode) {
+        this.readMode = readMode;
+    }
+
+    public String getLoadMode() {
+        return loadMode;
+    }
+
+    public void setLoadMode(String loadMode) {
+        this.loadMode = loadMode;
+    }
+
+    public boolean isAdaptiveChunkSize() {
+        return adaptiveChunkSize;
+    }
+
+    public void setAdaptiveChunkSize(boolean adaptiveChunkSize) {
+        this.adaptiveChunkSize = adaptiveChunkSize;
+    }
+
+    // The partitioned job imports the file with a partition per available processor
+    public String getJobName() {
+        return partitioned ? "import-file-partitioned" : "import-file";
+    }
+
     public String getFileName() {
         return fileName;
     }
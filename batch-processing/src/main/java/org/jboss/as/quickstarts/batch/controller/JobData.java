@@ -21,6 +21,8 @@ import java.util.Properties;
 
 import jakarta.batch.runtime.BatchStatus;
 
+import org.jboss.as.quickstarts.batch.metrics.JobMetrics;
+
 //This class is used to show the latest job execution from each job instance
 public class JobData {
 
@@ -40,9 +42,11 @@ public class JobData {
 
     private String exitStatus;
 
+    private JobMetrics metrics;
+
     public JobData(Long jobInstanceId, Long executionId, String jobName,
         Date startTime, Date endTime, BatchStatus batchStatus,
-        Properties parameters, String exitStatus) {
+        Properties parameters, String exitStatus, JobMetrics metrics) {
         this.jobInstanceId = jobInstanceId;
         this.executionId = executionId;
         this.jobName = jobName;
@@ -51,6 +55,7 @@ public class JobData {
         this.batchStatus = batchStatus;
         this.jobParameters = parameters;
         this.exitStatus = exitStatus;
+        this.metrics = metrics;
     }
 
     public Long getJobInstanceId() {
@@ -85,4 +90,9 @@ public class JobData {
         return exitStatus;
     }
 
+    // The live metrics of the execution, or null if not available, e.g. after a server restart
+    public JobMetrics getMetrics() {
+        return metrics;
+    }
+
 }
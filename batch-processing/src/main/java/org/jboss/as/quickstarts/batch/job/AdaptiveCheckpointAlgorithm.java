@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import jakarta.batch.api.BatchProperty;
+import jakarta.batch.api.chunk.AbstractCheckpointAlgorithm;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+//This checkpoint algorithm grows or shrinks the number of items per chunk, and so per transaction, so that each chunk takes about the target time.
+//After each chunk the time per item is measured, and the next chunk size moves halfway towards the size which would take the target time, at most doubling or halving it.
+@Named("adaptiveCheckpointAlgorithm")
+public class AdaptiveCheckpointAlgorithm extends AbstractCheckpointAlgorithm {
+
+    // Here you can inject a property defined in import-file.xml
+    @Inject
+    @BatchProperty
+    private String targetMillis;
+
+    @Inject
+    @BatchProperty
+    private String minItems;
+
+    @Inject
+    @BatchProperty
+    private String maxItems;
+
+    @Inject
+    private Logger log;
+
+    private int chunkSize;
+
+    private int items;
+
+    private long chunkStartNanos;
+
+    // Invoked at the start of every chunk, including the chunk retried after a rollback, thus the items read by a chunk
+    // which was rolled back, and never committed, are not counted
+    @Override
+    public void beginCheckpoint() throws Exception {
+        resetChunk();
+    }
+
+    @Override
+    public boolean isReadyToCheckpoint() throws Exception {
+        if (chunkSize == 0) {
+            // the first chunk uses the min size
+            chunkSize = getMinItems();
+        }
+        if (items++ == 0 && chunkStartNanos == 0) {
+            chunkStartNanos = System.nanoTime();
+        }
+        return items >= chunkSize;
+    }
+
+    // Invoked after the chunk was written and its transaction committed
+    @Override
+    public void endCheckpoint() throws Exception {
+        long chunkNanos = Math.max(1, System.nanoTime() - chunkStartNanos);
+        if (items > 0) {
+            double itemNanos = (double) chunkNanos / items;
+            long targetSize = Math.round(TimeUnit.MILLISECONDS.toNanos(getLongProperty(targetMillis, 1000)) / itemNanos);
+            long nextSize = (chunkSize + targetSize) / 2;
+            nextSize = Math.max(chunkSize / 2, Math.min(chunkSize * 2L, nextSize));
+            nextSize = Math.max(getMinItems(), Math.min(getLongProperty(maxItems, 10000), nextSize));
+            if (nextSize != chunkSize) {
+                log.fine(String.format("Chunk of %d items took %d ms, next chunk size is %d", items, TimeUnit.NANOSECONDS.toMillis(chunkNanos), nextSize));
+            }
+            chunkSize = (int) nextSize;
+        }
+        resetChunk();
+    }
+
+    private void resetChunk() {
+        items = 0;
+        chunkStartNanos = 0;
+    }
+
+    private int getMinItems() {
+        return (int) getLongProperty(minItems, 3);
+    }
+
+    private static long getLongProperty(String value, long defaultValue) {
+        return value == null || value.isEmpty() ? defaultValue : Long.parseLong(value);
+    }
+}
@@ -21,6 +21,9 @@ import java.io.Serializable;
 /**
  * This class controls the checkpoint for the {@link RecordsReader}
  *
+ * Besides the number of lines read it also keeps the byte offset of the next line, so a restarted reader can seek
+ * straight to it, instead of reading all the lines already processed. For a compressed file the byte offset is in the
+ * decompressed stream, and the file offset is the position in the compressed stream.
  */
 public class ChunkCheckpoint implements Serializable {
 
@@ -28,12 +31,38 @@ public class ChunkCheckpoint implements Serializable {
 
     private long lineNumber;
 
-    public void increase() {
+    private long byteOffset;
+
+    private long fileOffset;
+
+    public ChunkCheckpoint() {
+    }
+
+    public ChunkCheckpoint(long byteOffset) {
+        this.byteOffset = byteOffset;
+        this.fileOffset = byteOffset;
+    }
+
+    public void increase(long byteOffset) {
+        increase(byteOffset, byteOffset);
+    }
+
+    public void increase(long byteOffset, long fileOffset) {
         lineNumber++;
+        this.byteOffset = byteOffset;
+        this.fileOffset = fileOffset;
     }
 
     public long getLineNumber() {
         return lineNumber;
     }
 
+    public long getByteOffset() {
+        return byteOffset;
+    }
+
+    public long getFileOffset() {
+        return fileOffset;
+    }
+
 }
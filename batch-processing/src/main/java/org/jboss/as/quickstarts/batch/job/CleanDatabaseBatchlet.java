@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.util.logging.Logger;
+
+import jakarta.batch.api.AbstractBatchlet;
+import jakarta.batch.api.BatchProperty;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.persistence.EntityManager;
+
+//This batchlet cleans the database before a partitioned import, since the partitions' writers can't do it
+@Named("cleanDatabaseBatchlet")
+public class CleanDatabaseBatchlet extends AbstractBatchlet {
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private Logger log;
+
+    // Here you can inject a property defined in import-file-partitioned.xml, there is nothing to clean if the load mode is shadow or upsert
+    @Inject
+    @BatchProperty
+    private String loadMode;
+
+    @Override
+    public String process() throws Exception {
+        if ("shadow".equals(loadMode) || "upsert".equals(loadMode)) {
+            return "SKIPPED";
+        }
+        log.info("Cleaning the Database");
+        entityManager.createQuery("DELETE FROM Contact c").executeUpdate();
+        return "CLEANED";
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.util.HashSet;
+import java.util.Set;
+
+//This class tracks the ids of the contacts in the database, used by the upsert load mode. The ids inserted by a chunk are pending
+//until the chunk is committed, see PersistListener, so the contacts of a chunk rolled back and retried are inserted again, not updated.
+public class ContactIds {
+
+    private final LongHashSet committed = new LongHashSet();
+
+    private final Set<Long> pending = new HashSet<>();
+
+    void addCommitted(long id) {
+        committed.add(id);
+    }
+
+    int size() {
+        return committed.size();
+    }
+
+    // Checks if the contact is neither in the database nor inserted earlier in the current chunk, and if so marks it as pending
+    boolean addIfNew(long id) {
+        return !committed.contains(id) && pending.add(id);
+    }
+
+    // Invoked once the chunk was written and committed
+    public void commit() {
+        for (long id : pending) {
+            committed.add(id);
+        }
+        pending.clear();
+    }
+
+    // Invoked when the chunk fails, or before a new chunk starts
+    public void rollback() {
+        pending.clear();
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.Serializable;
+
+import jakarta.batch.api.partition.AbstractPartitionAnalyzer;
+import jakarta.batch.runtime.context.JobContext;
+import jakarta.batch.runtime.context.StepContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+//This class merges the counts sent by the partition collectors, and makes the total available to the ReportBatchlet
+@Named("contactsCountAnalyzer")
+public class ContactsCountAnalyzer extends AbstractPartitionAnalyzer {
+
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private StepContext stepContext;
+
+    @Override
+    public void analyzeCollectorData(Serializable data) throws Exception {
+        // The total is kept in the step persistent user data, so that partitions completed before a restart are still counted
+        Long total = (Long) stepContext.getPersistentUserData();
+        total = (total == null ? 0L : total) + (Long) data;
+        stepContext.setPersistentUserData(total);
+        jobContext.setTransientUserData(total);
+    }
+}
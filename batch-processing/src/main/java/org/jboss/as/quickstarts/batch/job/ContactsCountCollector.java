@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.Serializable;
+
+import jakarta.batch.api.partition.PartitionCollector;
+import jakarta.batch.runtime.Metric;
+import jakarta.batch.runtime.context.StepContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+//This class runs on each partition thread, and sends to the analyzer how many contacts were written since its last invocation
+@Named("contactsCountCollector")
+public class ContactsCountCollector implements PartitionCollector {
+
+    @Inject
+    private StepContext stepContext;
+
+    private long collectedCount;
+
+    @Override
+    public Serializable collectPartitionData() throws Exception {
+        long writeCount = getWriteCount();
+        long count = writeCount - collectedCount;
+        collectedCount = writeCount;
+        return count;
+    }
+
+    private long getWriteCount() {
+        for (Metric metric : stepContext.getMetrics()) {
+            if (metric.getType() == Metric.MetricType.WRITE_COUNT) {
+                return metric.getValue();
+            }
+        }
+        return 0;
+    }
+}
@@ -17,10 +17,18 @@
 package org.jboss.as.quickstarts.batch.job;
 
 import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
+import javax.sql.DataSource;
+
+import jakarta.annotation.Resource;
+import jakarta.batch.api.BatchProperty;
 import jakarta.batch.api.chunk.AbstractItemWriter;
+import jakarta.batch.runtime.context.StepContext;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 import jakarta.persistence.EntityManager;
@@ -28,6 +36,9 @@ import jakarta.persistence.EntityManager;
 import org.jboss.as.quickstarts.batch.model.Contact;
 
 //This class will persist the contacts chunk at the database. It cleans the database if it's the first execution (no checkpoint)
+//The whole chunk is persisted and flushed once, so that Hibernate sends the inserts as JDBC batches, or with the jdbc write mode, inserted directly as a JDBC batch
+//With the upsert load mode the database is not cleaned, instead the ids of the existing contacts are loaded at open, and each chunk is split in a JDBC batch of inserts and one of updates
+//The inserts are standard SQL MERGE statements, so that a contact inserted meanwhile by another partition is updated instead
 @Named("contactsPersister")
 public class ContactsPersister extends AbstractItemWriter {
 
@@ -37,11 +48,46 @@ public class ContactsPersister extends AbstractItemWriter {
     @Inject
     private Logger log;
 
+    @Inject
+    private StepContext stepContext;
+
+    // Set to false by import-file-partitioned.xml, where the database is cleaned once, before the partitions start
+    @Inject
+    @BatchProperty
+    private String cleanDatabase;
+
+    // Here you can inject a property defined in import-file.xml, either persist (the default) or jdbc
+    @Inject
+    @BatchProperty
+    private String writeMode;
+
+    // Here you can inject a property defined in import-file.xml, either delete (the default), shadow, which always inserts with JDBC into the shadow table,
+    // or upsert, which inserts new contacts and updates existing ones with JDBC
+    @Inject
+    @BatchProperty
+    private String loadMode;
+
+    // The datasource of the persistence unit, used by the jdbc write mode
+    @Resource(lookup = "java:jboss/datasources/batch-processingDS")
+    private DataSource dataSource;
+
     private Boolean hasCheckPoint;
 
+    // the ids of the contacts in the database, used by the upsert load mode, also set as the step's transient user data,
+    // so that the PersistListener commits the ids inserted by each chunk once the chunk completes
+    private ContactIds contactIds;
+
     @Override
     public void open(Serializable checkpoint) throws Exception {
-        if (checkpoint == null) {
+        if ("upsert".equals(loadMode)) {
+            // also after a restart, since the contacts written before it are in the database
+            contactIds = new ContactIds();
+            entityManager.createQuery("SELECT c.id FROM Contact c", Integer.class).getResultStream().forEach(contactIds::addCommitted);
+            stepContext.setTransientUserData(contactIds);
+            log.info("Loaded the ids of " + contactIds.size() + " existing contacts");
+            return;
+        }
+        if (checkpoint == null && !"false".equals(cleanDatabase) && !"shadow".equals(loadMode)) {
             log.info("No checkpoint detected. Cleaning the Database");
             entityManager.createQuery("DELETE FROM Contact c").executeUpdate();
             hasCheckPoint = true;
@@ -51,10 +97,88 @@ public class ContactsPersister extends AbstractItemWriter {
 
     @Override
     public void writeItems(List<Object> items) throws Exception {
+        if ("upsert".equals(loadMode)) {
+            upsertItems(items);
+            return;
+        }
+        if ("shadow".equals(loadMode)) {
+            insertItems(items, ShadowTableBatchlet.SHADOW_TABLE);
+            return;
+        }
+        if ("jdbc".equals(writeMode)) {
+            insertItems(items, "Contact");
+            return;
+        }
         for (int i = 0; i < items.size(); i++) {
             Contact c = (Contact) items.get(i);
             entityManager.persist(c);
-            entityManager.flush();
+        }
+        // a single flush for the whole chunk, with hibernate.jdbc.batch_size set in persistence.xml the inserts are batched
+        entityManager.flush();
+    }
+
+    // Routes each contact to the inserts or the updates, without a query per contact, and then executes both as JDBC batches
+    private void upsertItems(List<Object> items) throws Exception {
+        List<Contact> inserts = new ArrayList<>();
+        List<Contact> updates = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Contact c = (Contact) items.get(i);
+            // a contact repeated in the feed is inserted once, and then updated
+            if (contactIds.addIfNew(c.getId())) {
+                inserts.add(c);
+            } else {
+                updates.add(c);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            mergeItems(inserts);
+        }
+        if (!updates.isEmpty()) {
+            try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("UPDATE Contact SET name = ?, phone = ? WHERE id = ?")) {
+                for (Contact c : updates) {
+                    statement.setString(1, c.getName());
+                    statement.setString(2, c.getPhone());
+                    statement.setInt(3, c.getId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+
+    // Inserts the contacts with a single JDBC batch of MERGE statements, which update the contacts that exist already, instead
+    // of failing with a duplicate key, and aborting the chunk's transaction on databases such as PostgreSQL
+    private void mergeItems(List<Contact> items) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement("MERGE INTO Contact c"
+                + " USING (VALUES (CAST(? AS INTEGER), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)))) AS s (id, name, phone)"
+                + " ON c.id = s.id"
+                + " WHEN MATCHED THEN UPDATE SET name = s.name, phone = s.phone"
+                + " WHEN NOT MATCHED THEN INSERT (id, name, phone) VALUES (s.id, s.name, s.phone)")) {
+            for (Contact c : items) {
+                statement.setInt(1, c.getId());
+                statement.setString(2, c.getName());
+                statement.setString(3, c.getPhone());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    // Inserts the contacts with a single JDBC batch, bypassing the persistence context, as a Hibernate StatelessSession would do
+    private void insertItems(List<?> items, String table) throws Exception {
+        // the connection is enlisted in the chunk's JTA transaction
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement("INSERT INTO " + table + " (id, name, phone) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < items.size(); i++) {
+                Contact c = (Contact) items.get(i);
+                statement.setInt(1, c.getId());
+                statement.setString(2, c.getName());
+                statement.setString(3, c.getPhone());
+                statement.addBatch();
+            }
+            statement.executeBatch();
         }
     }
 
@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+//This class reads the lines of a file through a FileChannel, keeping track of the byte offset of the next line, so that a reader may be positioned straight at it.
+//Gzip compressed files are detected and decompressed while read, the offsets are then in the decompressed stream, and positioning requires decompressing up to it.
+public class LineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel fileChannel;
+
+    private final ReadableByteChannel channel;
+
+    private final boolean compressed;
+
+    private final Charset charset;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private byte[] line = new byte[256];
+
+    // the byte offset of the next line
+    private long offset;
+
+    public LineReader(File file, Charset charset, long offset) throws IOException {
+        this.fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.charset = charset;
+        this.offset = offset;
+        this.compressed = isCompressed(fileChannel);
+        buffer.flip();
+        if (compressed) {
+            channel = Channels.newChannel(new GZIPInputStream(Channels.newInputStream(fileChannel), BUFFER_SIZE));
+            skip(offset);
+        } else {
+            channel = fileChannel;
+            fileChannel.position(offset);
+        }
+    }
+
+    // Checks for the gzip magic bytes at the start of the file
+    public static boolean isCompressed(File file) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return isCompressed(fileChannel);
+        }
+    }
+
+    private static boolean isCompressed(FileChannel fileChannel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(2);
+        while (magic.hasRemaining() && fileChannel.read(magic, magic.position()) > 0) {
+            // read the 2 bytes
+        }
+        return magic.position() == 2 && (magic.get(0) & 0xff) == 0x1f && (magic.get(1) & 0xff) == 0x8b;
+    }
+
+    // Discards the specified number of decompressed bytes
+    private void skip(long bytes) throws IOException {
+        while (bytes > 0) {
+            buffer.clear();
+            int read = channel.read(buffer);
+            buffer.flip();
+            if (read < 0) {
+                return;
+            }
+            int skipped = (int) Math.min(bytes, read);
+            buffer.position(skipped);
+            bytes -= skipped;
+        }
+    }
+
+    // Reads the next line, without the line terminator, or returns null if the end of the file was reached
+    public String readLine() throws IOException {
+        int length = 0;
+        boolean endOfFile = false;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read < 0) {
+                    endOfFile = true;
+                    break;
+                }
+            }
+            byte b = buffer.get();
+            offset++;
+            if (b == '\n') {
+                break;
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = b;
+        }
+        if (endOfFile && length == 0) {
+            return null;
+        }
+        // like BufferedReader, also accept \r\n as line terminator
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, charset);
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    // The offset in the file as stored, which for a compressed file is the position of the compressed stream, including the bytes buffered by the decompression
+    public long getFileOffset() throws IOException {
+        return compressed ? fileChannel.position() : offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        fileChannel.close();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+
+//This class parses the records of a file mapped in memory, scanning for a single byte separator instead of splitting lines with a regex,
+//and decoding only the id, name and phone fields into a Contact. Files larger than a mapping window are mapped one window at a time.
+public class MappedRecordsParser implements Closeable {
+
+    private static final long WINDOW_SIZE = 64 * 1024 * 1024;
+
+    // the max size of each mapping window, and thus of a record
+    private final long windowSize;
+
+    private final FileChannel channel;
+
+    private final Charset charset;
+
+    private final byte separator;
+
+    // the byte offset where records stop being parsed
+    private final long end;
+
+    private MappedByteBuffer buffer;
+
+    // the byte offset of the mapping window
+    private long windowOffset;
+
+    // the byte offset of the next record
+    private long offset;
+
+    private byte[] field = new byte[64];
+
+    public MappedRecordsParser(File file, Charset charset, byte separator, long offset, long end) throws IOException {
+        this(file, charset, separator, offset, end, WINDOW_SIZE);
+    }
+
+    // With a smaller window, so that tests may cross windows with small files
+    MappedRecordsParser(File file, Charset charset, byte separator, long offset, long end, long windowSize) throws IOException {
+        this.windowSize = windowSize;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.charset = charset;
+        this.separator = separator;
+        this.offset = offset;
+        this.end = Math.min(end, channel.size());
+        map(offset);
+    }
+
+    private void map(long position) throws IOException {
+        windowOffset = position;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.max(0, Math.min(windowSize, end - position)));
+    }
+
+    // Parses the next record, or returns null if there are no more records
+    public Contact next() throws IOException {
+        if (offset >= end) {
+            return null;
+        }
+        int lineEnd = recordEnd();
+        int start = (int) (offset - windowOffset);
+        // the last record may have no line terminator
+        int next = lineEnd < 0 ? buffer.limit() : lineEnd + 1;
+        if (lineEnd < 0) {
+            lineEnd = buffer.limit();
+        }
+        // like BufferedReader, also accept \r\n as line terminator
+        if (lineEnd > start && buffer.get(lineEnd - 1) == '\r') {
+            lineEnd--;
+        }
+        offset = windowOffset + next;
+        int idEnd = fieldEnd(start, lineEnd);
+        int nameEnd = fieldEnd(idEnd + 1, lineEnd);
+        int phoneEnd = fieldEnd(nameEnd + 1, lineEnd);
+        if (phoneEnd > lineEnd) {
+            throw new IOException("Record at byte offset " + (windowOffset + start) + " has less than 3 fields");
+        }
+        Contact contact = new Contact();
+        contact.setId(parseInt(start, idEnd));
+        contact.setName(decode(idEnd + 1, nameEnd));
+        contact.setPhone(decode(nameEnd + 1, phoneEnd));
+        return contact;
+    }
+
+    // Skips the specified number of records without parsing them, e.g. to restore a checkpoint which has a line number but no byte offset
+    public void skip(long records) throws IOException {
+        for (long i = 0; i < records && offset < end; i++) {
+            int lineEnd = recordEnd();
+            offset = windowOffset + (lineEnd < 0 ? buffer.limit() : lineEnd + 1);
+        }
+    }
+
+    // Retrieves the index of the line terminator of the record at the offset, mapping a new window if the record crosses the current one,
+    // or -1 if the record is the last one and has no line terminator
+    private int recordEnd() throws IOException {
+        int lineEnd = indexOf((byte) '\n', (int) (offset - windowOffset));
+        if (lineEnd < 0 && windowOffset + buffer.limit() < end) {
+            // the record crosses the window, map a new one starting at the record
+            map(offset);
+            lineEnd = indexOf((byte) '\n', 0);
+            if (lineEnd < 0 && windowOffset + buffer.limit() < end) {
+                throw new IOException("Record at byte offset " + offset + " is larger than " + windowSize + " bytes");
+            }
+        }
+        return lineEnd;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    private int indexOf(byte b, int from) {
+        for (int i = from; i < buffer.limit(); i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Retrieves the index of the separator ending the field starting at the specified index, or the line end, or past it if the line has no more fields
+    private int fieldEnd(int from, int lineEnd) {
+        if (from > lineEnd) {
+            return lineEnd + 1;
+        }
+        for (int i = from; i < lineEnd; i++) {
+            if (buffer.get(i) == separator) {
+                return i;
+            }
+        }
+        return lineEnd;
+    }
+
+    // Parses the id as Integer.parseInt does, i.e. rejecting a sign without digits and values out of the int range, accumulating
+    // negatively, since the negative range is larger
+    private int parseInt(int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == to) {
+            throw new NumberFormatException("Invalid id at byte offset " + (windowOffset + from));
+        }
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int value = 0;
+        for (; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || value < limit / 10 || value * 10 < limit + digit) {
+                throw new NumberFormatException("Invalid id at byte offset " + (windowOffset + from));
+            }
+            value = value * 10 - digit;
+        }
+        return negative ? value : -value;
+    }
+
+    private String decode(int from, int to) {
+        int length = to - from;
+        if (length > field.length) {
+            field = new byte[Math.max(length, field.length * 2)];
+        }
+        buffer.get(from, field, 0, length);
+        return new String(field, 0, length, charset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        // the mapping is released when the buffer is garbage collected
+        buffer = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import jakarta.batch.api.BatchProperty;
+import jakarta.batch.api.partition.PartitionMapper;
+import jakarta.batch.api.partition.PartitionPlan;
+import jakarta.batch.api.partition.PartitionPlanImpl;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+//This class splits the file in byte ranges, aligned to record boundaries, each one to be imported by a partition running on its own thread
+@Named("recordsPartitionMapper")
+public class RecordsPartitionMapper implements PartitionMapper {
+
+    // Here you can inject a property defined in import-file-partitioned.xml
+    @Inject
+    @BatchProperty
+    private String fileName;
+
+    // Here you can inject a property defined in import-file-partitioned.xml
+    @Inject
+    @BatchProperty
+    private String partitions;
+
+    @Inject
+    private Logger log;
+
+    @Override
+    public PartitionPlan mapPartitions() throws Exception {
+        File file = new File(System.getProperty("java.io.tmpdir"), fileName);
+        long fileSize = file.length();
+        int maxPartitions = partitions == null || partitions.isEmpty() ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(partitions);
+        // A compressed file can only be read from its start, thus it is imported by a single partition
+        if (LineReader.isCompressed(file)) {
+            log.info(String.format("%s is compressed, importing it with a single partition", file));
+            maxPartitions = 1;
+        }
+        // Each boundary is moved forward to the start of the next record, ranges which end up empty are dropped
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        for (int i = 1; i < maxPartitions; i++) {
+            long boundary = nextRecordOffset(file, fileSize * i / maxPartitions);
+            if (boundary > boundaries.get(boundaries.size() - 1) && boundary < fileSize) {
+                boundaries.add(boundary);
+            }
+        }
+        boundaries.add(fileSize);
+        int partitionCount = boundaries.size() - 1;
+        Properties[] partitionProperties = new Properties[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitionProperties[i] = new Properties();
+            partitionProperties[i].setProperty("startOffset", String.valueOf(boundaries.get(i)));
+            partitionProperties[i].setProperty("endOffset", String.valueOf(boundaries.get(i + 1)));
+        }
+        log.info(String.format("Importing %s (%d bytes) with %d partitions", file, fileSize, partitionCount));
+        PartitionPlan plan = new PartitionPlanImpl();
+        plan.setPartitions(partitionCount);
+        plan.setThreads(partitionCount);
+        plan.setPartitionProperties(partitionProperties);
+        return plan;
+    }
+
+    // Retrieves the byte offset of the first record starting at or after the specified offset
+    private static long nextRecordOffset(File file, long offset) throws Exception {
+        if (offset == 0) {
+            return 0;
+        }
+        // read the rest of the line containing the byte before the offset, the next one starts at or after the offset
+        try (LineReader lineReader = new LineReader(file, Charset.defaultCharset(), offset - 1)) {
+            lineReader.readLine();
+            return lineReader.getOffset();
+        }
+    }
+}
@@ -16,17 +16,19 @@
  */
 package org.jboss.as.quickstarts.batch.job;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.Serializable;
+import java.nio.charset.Charset;
 import java.util.logging.Logger;
 
 import jakarta.batch.api.BatchProperty;
 import jakarta.batch.api.chunk.ItemReader;
+import jakarta.batch.runtime.context.JobContext;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
+import org.jboss.as.quickstarts.batch.metrics.JobMetrics;
+import org.jboss.as.quickstarts.batch.metrics.JobMetricsRegistry;
 import org.jboss.as.quickstarts.batch.model.Contact;
 
 //This class will read the file and return an instance of Contact to be imported
@@ -38,44 +40,126 @@ public class RecordsReader implements ItemReader {
     @BatchProperty
     private String separatorRegex;
 
+    // Here you can inject a property defined in import-file.xml, either lines (the default) or mapped
+    @Inject
+    @BatchProperty
+    private String readMode;
+
+    // Here you can inject a property defined in import-file.xml, the single byte separator used by the mapped read mode
+    @Inject
+    @BatchProperty
+    private String separator;
+
     // Here you can inject a property defined in import-file.xml
     @Inject
     @BatchProperty
     private String fileName;
 
+    // The byte range to read, set by the RecordsPartitionMapper when the job is partitioned, otherwise the whole file is read
+    @Inject
+    @BatchProperty
+    private String startOffset;
+
+    @Inject
+    @BatchProperty
+    private String endOffset;
+
+    private long end;
+
     @Inject
     private Logger log;
 
-    private BufferedReader br;
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private JobMetricsRegistry metricsRegistry;
+
+    private JobMetrics metrics;
+
+    // the file offset last published to the job's live metrics
+    private long publishedOffset;
+
+    private LineReader br;
+
+    private MappedRecordsParser parser;
 
     private ChunkCheckpoint checkpoint;
 
     @Override
     public void close() throws Exception {
-        br.close();
+        if (parser != null) {
+            parser.close();
+        } else {
+            br.close();
+        }
     }
 
     @Override
     public void open(Serializable previousCheckpoint) throws Exception {
+        long start = startOffset == null || startOffset.isEmpty() ? 0L : Long.parseLong(startOffset);
         // Verify if we have an previous checkpoint
         if (previousCheckpoint == null) {
-            this.checkpoint = new ChunkCheckpoint();
+            this.checkpoint = new ChunkCheckpoint(start);
         }
         else {
             this.checkpoint = (ChunkCheckpoint) previousCheckpoint;
         }
-        br = new BufferedReader(new FileReader(new File(System.getProperty("java.io.tmpdir"), fileName)));
+        end = endOffset == null || endOffset.isEmpty() ? Long.MAX_VALUE : Long.parseLong(endOffset);
+        File file = new File(System.getProperty("java.io.tmpdir"), fileName);
+        // publish the file size, and the bytes processed before a restart, used to estimate the job's remaining time
+        metrics = metricsRegistry.get(jobContext.getExecutionId());
+        metrics.setFileSize(file.length());
+        metrics.bytesRestored(checkpoint.getFileOffset() - start);
+        publishedOffset = checkpoint.getFileOffset();
+        boolean compressed = LineReader.isCompressed(file);
+        if (compressed) {
+            // a compressed file is never split in byte ranges, and its byte offsets are in the decompressed stream
+            end = Long.MAX_VALUE;
+        }
+        if ("mapped".equals(readMode) && compressed) {
+            log.info("The file " + file + " is compressed and can't be mapped in memory, reading lines instead");
+        }
+        if ("mapped".equals(readMode) && !compressed) {
+            // The file is mapped in memory, and the records parsed without regex, starting at the byte offset of the previous checkpoint
+            parser = new MappedRecordsParser(file, Charset.defaultCharset(), (byte) separator.charAt(0), checkpoint.getByteOffset(), end);
+            if (checkpoint.getLineNumber() > 0) {
+                log.info("Skipping to line " + checkpoint.getLineNumber() + " as marked by previous checkpoint, at byte offset " + checkpoint.getByteOffset());
+                // checkpoints without byte offset, i.e. created before it was introduced, still need the records to be skipped
+                if (checkpoint.getByteOffset() == 0) {
+                    parser.skip(checkpoint.getLineNumber());
+                }
+            }
+            return;
+        }
+        // The file is positioned straight at the byte offset of the previous checkpoint, no matter how many lines were already read,
+        // unless it is gzip compressed, then it is decompressed up to the byte offset, but the lines are not parsed
+        br = new LineReader(file, Charset.defaultCharset(), checkpoint.getByteOffset());
         long lineNumber = checkpoint.getLineNumber();
         if (lineNumber > 0) {
-            log.info("Skipping to line " + lineNumber + " as marked by previous checkpoint");
-        }
-        for (long i = 0; i < lineNumber; i++) {
-            br.readLine();
+            log.info("Skipping to line " + lineNumber + " as marked by previous checkpoint, at byte offset " + checkpoint.getByteOffset());
+            // checkpoints without byte offset, i.e. created before it was introduced, still need the lines to be read
+            if (checkpoint.getByteOffset() == 0) {
+                for (long i = 0; i < lineNumber; i++) {
+                    br.readLine();
+                }
+            }
         }
     }
 
     @Override
     public Contact readItem() throws Exception {
+        if (parser != null) {
+            Contact contact = parser.next();
+            if (contact != null) {
+                // update the checkpoint
+                checkpoint.increase(parser.getOffset());
+            }
+            return contact;
+        }
+        if (br.getOffset() >= end) {
+            return null;
+        }
         String line = br.readLine();
         if (line != null) {
             String[] fields = line.split(separatorRegex);
@@ -84,7 +168,7 @@ public class RecordsReader implements ItemReader {
             contact.setName(fields[1]);
             contact.setPhone(fields[2]);
             // update the checkpoint
-            checkpoint.increase();
+            checkpoint.increase(br.getOffset(), br.getFileOffset());
             return contact;
         }
         return null;
@@ -92,6 +176,8 @@ public class RecordsReader implements ItemReader {
 
     @Override
     public Serializable checkpointInfo() throws Exception {
+        metrics.bytesProcessed(checkpoint.getFileOffset() - publishedOffset);
+        publishedOffset = checkpoint.getFileOffset();
         return checkpoint;
     }
 
@@ -0,0 +1,200 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import jakarta.annotation.Resource;
+import jakarta.batch.api.AbstractBatchlet;
+import jakarta.batch.api.BatchProperty;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+//This batchlet prepares the shadow table the contacts are imported into, and then swaps it with the Contact table, publishing the imported contacts at once.
+//Readers of the Contact table keep seeing the previous contacts during the import, and no mass delete is needed. It does nothing unless the load mode is shadow.
+//Where DDL is transactional, e.g. PostgreSQL, both tables are renamed in a single transaction. Elsewhere, e.g. H2, each rename commits on its own,
+//so each action checks which tables exist, and completes a swap interrupted by a failure, when the job is restarted or another import starts.
+@Named("shadowTableBatchlet")
+public class ShadowTableBatchlet extends AbstractBatchlet {
+
+    static final String SHADOW_TABLE = "Contact_Shadow";
+
+    private static final String TABLE = "Contact";
+
+    private static final String OLD_TABLE = "Contact_Old";
+
+    @Inject
+    private Logger log;
+
+    // Here you can inject a property defined in import-file.xml, either prepare or swap
+    @Inject
+    @BatchProperty
+    private String action;
+
+    // Here you can inject a property defined in import-file.xml, either delete (the default) or shadow
+    @Inject
+    @BatchProperty
+    private String loadMode;
+
+    // The datasource of the persistence unit
+    @Resource(lookup = "java:jboss/datasources/batch-processingDS")
+    private DataSource dataSource;
+
+    @Override
+    public String process() throws Exception {
+        if (!"shadow".equals(loadMode)) {
+            return "SKIPPED";
+        }
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            if ("prepare".equals(action)) {
+                if (!exists(metaData, TABLE)) {
+                    // a previous import failed in the middle of the swap
+                    completeSwap(metaData, statement);
+                }
+                log.info("Preparing the shadow table " + SHADOW_TABLE);
+                statement.executeUpdate("DROP TABLE IF EXISTS " + SHADOW_TABLE);
+                // same columns as the Contact table, whatever the mapping of the Contact entity, and then its keys
+                statement.executeUpdate("CREATE TABLE " + SHADOW_TABLE + " AS SELECT * FROM " + TABLE + " WHERE 1=0");
+                List<String> primaryKey = getPrimaryKey(metaData, TABLE);
+                if (!primaryKey.isEmpty()) {
+                    statement.executeUpdate("ALTER TABLE " + SHADOW_TABLE + " ADD PRIMARY KEY (" + String.join(", ", primaryKey) + ")");
+                }
+                for (List<String> uniqueKey : getUniqueKeys(metaData, TABLE)) {
+                    if (!uniqueKey.equals(primaryKey)) {
+                        statement.executeUpdate("ALTER TABLE " + SHADOW_TABLE + " ADD UNIQUE (" + String.join(", ", uniqueKey) + ")");
+                    }
+                }
+                return "PREPARED";
+            }
+            if ("swap".equals(action)) {
+                if (!exists(metaData, SHADOW_TABLE)) {
+                    // swapped by a previous execution, which failed before completing the step
+                    if (exists(metaData, OLD_TABLE)) {
+                        statement.executeUpdate("DROP TABLE " + OLD_TABLE);
+                    }
+                    log.info("The shadow table " + SHADOW_TABLE + " was already swapped with the Contact table");
+                    return "SWAPPED";
+                }
+                log.info("Swapping the shadow table " + SHADOW_TABLE + " with the Contact table");
+                if (!exists(metaData, TABLE)) {
+                    // the Contact table was renamed by a previous execution, which failed before renaming the shadow table
+                    completeSwap(metaData, statement);
+                    return "SWAPPED";
+                }
+                statement.executeUpdate("DROP TABLE IF EXISTS " + OLD_TABLE);
+                // a local transaction, unless the connection is enlisted in a JTA transaction already, or DDL is not transactional
+                boolean localTransaction = isDataDefinitionTransactional(metaData) && connection.getAutoCommit();
+                if (localTransaction) {
+                    connection.setAutoCommit(false);
+                }
+                try {
+                    statement.executeUpdate("ALTER TABLE " + TABLE + " RENAME TO " + OLD_TABLE);
+                    statement.executeUpdate("ALTER TABLE " + SHADOW_TABLE + " RENAME TO " + TABLE);
+                    if (localTransaction) {
+                        connection.commit();
+                    }
+                } catch (SQLException e) {
+                    if (localTransaction) {
+                        connection.rollback();
+                    }
+                    throw e;
+                } finally {
+                    if (localTransaction) {
+                        connection.setAutoCommit(true);
+                    }
+                }
+                statement.executeUpdate("DROP TABLE IF EXISTS " + OLD_TABLE);
+                return "SWAPPED";
+            }
+        }
+        throw new IllegalArgumentException("Unknown shadow table action " + action);
+    }
+
+    // Renames the shadow table to Contact, when the Contact table was renamed but not the shadow table, or else restores the previous Contact table
+    private void completeSwap(DatabaseMetaData metaData, Statement statement) throws SQLException {
+        if (exists(metaData, SHADOW_TABLE)) {
+            log.info("Completing the interrupted swap of the shadow table " + SHADOW_TABLE + " with the Contact table");
+            statement.executeUpdate("ALTER TABLE " + SHADOW_TABLE + " RENAME TO " + TABLE);
+            statement.executeUpdate("DROP TABLE IF EXISTS " + OLD_TABLE);
+        } else if (exists(metaData, OLD_TABLE)) {
+            log.info("Restoring the Contact table from " + OLD_TABLE);
+            statement.executeUpdate("ALTER TABLE " + OLD_TABLE + " RENAME TO " + TABLE);
+        }
+    }
+
+    private static boolean isDataDefinitionTransactional(DatabaseMetaData metaData) throws SQLException {
+        return metaData.supportsDataDefinitionAndDataManipulationTransactions() && !metaData.dataDefinitionCausesTransactionCommit();
+    }
+
+    private static boolean exists(DatabaseMetaData metaData, String table) throws SQLException {
+        try (ResultSet tables = metaData.getTables(null, null, identifier(metaData, table), new String[] { "TABLE" })) {
+            return tables.next();
+        }
+    }
+
+    private static List<String> getPrimaryKey(DatabaseMetaData metaData, String table) throws SQLException {
+        Map<Short, String> columns = new TreeMap<>();
+        try (ResultSet primaryKey = metaData.getPrimaryKeys(null, null, identifier(metaData, table))) {
+            while (primaryKey.next()) {
+                columns.put(primaryKey.getShort("KEY_SEQ"), primaryKey.getString("COLUMN_NAME"));
+            }
+        }
+        return new ArrayList<>(columns.values());
+    }
+
+    // the columns of each unique index of the table
+    private static List<List<String>> getUniqueKeys(DatabaseMetaData metaData, String table) throws SQLException {
+        Map<String, Map<Short, String>> indexes = new TreeMap<>();
+        try (ResultSet index = metaData.getIndexInfo(null, null, identifier(metaData, table), true, false)) {
+            while (index.next()) {
+                if (index.getString("INDEX_NAME") != null && index.getString("COLUMN_NAME") != null) {
+                    indexes.computeIfAbsent(index.getString("INDEX_NAME"), name -> new TreeMap<>())
+                        .put(index.getShort("ORDINAL_POSITION"), index.getString("COLUMN_NAME"));
+                }
+            }
+        }
+        List<List<String>> uniqueKeys = new ArrayList<>();
+        for (Map<Short, String> columns : indexes.values()) {
+            uniqueKeys.add(new ArrayList<>(columns.values()));
+        }
+        return uniqueKeys;
+    }
+
+    // the table name as stored in the database metadata
+    private static String identifier(DatabaseMetaData metaData, String table) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return table.toUpperCase();
+        }
+        if (metaData.storesLowerCaseIdentifiers()) {
+            return table.toLowerCase();
+        }
+        return table;
+    }
+
+}
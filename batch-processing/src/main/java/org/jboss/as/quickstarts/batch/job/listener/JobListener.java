@@ -27,7 +27,9 @@ import jakarta.batch.runtime.context.JobContext;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
-//This listener modifies the Job to ABANDONED state if it was restarted once
+import org.jboss.as.quickstarts.batch.metrics.JobMetricsRegistry;
+
+//This listener modifies the Job to ABANDONED state if it was restarted once, and starts and finishes the job's live metrics
 @Named("jobListener")
 public class JobListener extends AbstractJobListener {
 
@@ -37,13 +39,18 @@ public class JobListener extends AbstractJobListener {
     @Inject
     private JobContext jobContext;
 
+    @Inject
+    private JobMetricsRegistry metricsRegistry;
+
     @Override
     public void beforeJob() throws Exception {
+        metricsRegistry.start(jobContext.getExecutionId());
         log.info(String.format("Job %s - Execution #%d starting.", jobContext.getJobName(), jobContext.getExecutionId()));
     }
 
     @Override
     public void afterJob() throws Exception {
+        metricsRegistry.get(jobContext.getExecutionId()).finished();
         JobOperator jobOperator = BatchRuntime.getJobOperator();
         Properties jobParameters = jobOperator.getParameters(jobContext.getExecutionId());
         //If the JOB was already restarted once, mark it as abandoned
@@ -20,13 +20,20 @@ import java.util.List;
 import java.util.logging.Logger;
 
 import jakarta.batch.api.chunk.listener.AbstractItemWriteListener;
+import jakarta.batch.api.chunk.listener.ChunkListener;
+import jakarta.batch.runtime.Metric;
 import jakarta.batch.runtime.context.JobContext;
+import jakarta.batch.runtime.context.StepContext;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
-//This listener updates the exit status to show the exception
+import org.jboss.as.quickstarts.batch.job.ContactIds;
+import org.jboss.as.quickstarts.batch.metrics.JobMetricsRegistry;
+
+//This listener updates the exit status to show the exception, and publishes the items read, written and skipped, and the latency of each chunk, to the job's live metrics
+//With the upsert load mode it also commits the ids of the contacts inserted by each chunk, or discards them if the chunk fails
 @Named("persistListener")
-public class PersistListener extends AbstractItemWriteListener {
+public class PersistListener extends AbstractItemWriteListener implements ChunkListener {
 
     @Inject
     private Logger log;
@@ -34,6 +41,69 @@ public class PersistListener extends AbstractItemWriteListener {
     @Inject
     private JobContext jobContext;
 
+    @Inject
+    private StepContext stepContext;
+
+    @Inject
+    private JobMetricsRegistry metricsRegistry;
+
+    private long chunkStartNanos;
+
+    // the step metrics already published, the step context of each partition has its own metrics
+    private long itemsRead;
+
+    private long itemsWritten;
+
+    private long itemsSkipped;
+
+    @Override
+    public void beforeChunk() throws Exception {
+        chunkStartNanos = System.nanoTime();
+        if (stepContext.getTransientUserData() instanceof ContactIds) {
+            ((ContactIds) stepContext.getTransientUserData()).rollback();
+        }
+    }
+
+    // Invoked after the chunk's transaction commit
+    @Override
+    public void afterChunk() throws Exception {
+        long chunkNanos = System.nanoTime() - chunkStartNanos;
+        if (stepContext.getTransientUserData() instanceof ContactIds) {
+            ((ContactIds) stepContext.getTransientUserData()).commit();
+        }
+        long read = 0;
+        long written = 0;
+        long skipped = 0;
+        for (Metric metric : stepContext.getMetrics()) {
+            switch (metric.getType()) {
+                case READ_COUNT:
+                    read = metric.getValue();
+                    break;
+                case WRITE_COUNT:
+                    written = metric.getValue();
+                    break;
+                case READ_SKIP_COUNT:
+                case PROCESS_SKIP_COUNT:
+                case WRITE_SKIP_COUNT:
+                    skipped += metric.getValue();
+                    break;
+                default:
+                    break;
+            }
+        }
+        metricsRegistry.get(jobContext.getExecutionId()).chunkCompleted(read - itemsRead, written - itemsWritten, skipped - itemsSkipped, chunkNanos);
+        itemsRead = read;
+        itemsWritten = written;
+        itemsSkipped = skipped;
+    }
+
+    @Override
+    public void onError(Exception ex) throws Exception {
+        if (stepContext.getTransientUserData() instanceof ContactIds) {
+            ((ContactIds) stepContext.getTransientUserData()).rollback();
+        }
+    }
+
     @Override
     public void afterWrite(List<Object> items) throws Exception {
         log.info("Persisting " + items.size() + " contacts");
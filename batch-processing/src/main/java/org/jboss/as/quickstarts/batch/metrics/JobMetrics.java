@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//This class holds the live metrics of a job execution, updated by the job's listeners and reader, from any partition thread
+public class JobMetrics {
+
+    private final long executionId;
+
+    private final long startNanos = System.nanoTime();
+
+    private volatile long endNanos;
+
+    private volatile long fileSize = -1;
+
+    private final AtomicLong itemsRead = new AtomicLong();
+
+    private final AtomicLong itemsWritten = new AtomicLong();
+
+    private final AtomicLong itemsSkipped = new AtomicLong();
+
+    private final AtomicLong chunks = new AtomicLong();
+
+    private final AtomicLong chunksNanos = new AtomicLong();
+
+    private volatile long lastChunkNanos;
+
+    // the bytes of the file processed by this execution, and by previous executions, before a restart
+    private final AtomicLong bytesProcessed = new AtomicLong();
+
+    private final AtomicLong bytesRestored = new AtomicLong();
+
+    public JobMetrics(long executionId) {
+        this.executionId = executionId;
+    }
+
+    public void chunkCompleted(long read, long written, long skipped, long chunkNanos) {
+        itemsRead.addAndGet(read);
+        itemsWritten.addAndGet(written);
+        itemsSkipped.addAndGet(skipped);
+        chunks.incrementAndGet();
+        chunksNanos.addAndGet(chunkNanos);
+        lastChunkNanos = chunkNanos;
+    }
+
+    public void bytesProcessed(long bytes) {
+        bytesProcessed.addAndGet(bytes);
+    }
+
+    public void bytesRestored(long bytes) {
+        bytesRestored.addAndGet(bytes);
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public void finished() {
+        endNanos = System.nanoTime();
+    }
+
+    public long getExecutionId() {
+        return executionId;
+    }
+
+    public boolean isFinished() {
+        return endNanos != 0;
+    }
+
+    public long getItemsRead() {
+        return itemsRead.get();
+    }
+
+    public long getItemsWritten() {
+        return itemsWritten.get();
+    }
+
+    public long getItemsSkipped() {
+        return itemsSkipped.get();
+    }
+
+    public long getChunks() {
+        return chunks.get();
+    }
+
+    private double getElapsedSeconds() {
+        long end = isFinished() ? endNanos : System.nanoTime();
+        return (end - startNanos) / 1_000_000_000d;
+    }
+
+    public long getItemsPerSecond() {
+        double elapsed = getElapsedSeconds();
+        return elapsed > 0 ? Math.round(itemsWritten.get() / elapsed) : 0;
+    }
+
+    public long getLastChunkMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastChunkNanos);
+    }
+
+    public long getAverageChunkMillis() {
+        long count = chunks.get();
+        return count > 0 ? TimeUnit.NANOSECONDS.toMillis(chunksNanos.get() / count) : 0;
+    }
+
+    // The percentage of the file processed, or -1 if unknown
+    public int getProgress() {
+        long size = fileSize;
+        if (size < 0) {
+            return -1;
+        }
+        if (size == 0) {
+            return 100;
+        }
+        return (int) Math.min(100, (bytesRestored.get() + bytesProcessed.get()) * 100 / size);
+    }
+
+    // The estimated seconds to process the rest of the file, at the rate of this execution, or -1 if unknown
+    public long getEtaSeconds() {
+        long size = fileSize;
+        long processed = bytesProcessed.get();
+        if (isFinished()) {
+            return 0;
+        }
+        if (size < 0 || processed == 0) {
+            return -1;
+        }
+        long remaining = Math.max(0, size - bytesRestored.get() - processed);
+        return Math.round(remaining / (processed / getElapsedSeconds()));
+    }
+
+}
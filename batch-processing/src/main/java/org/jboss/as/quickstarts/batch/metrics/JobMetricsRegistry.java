@@ -0,0 +1,50 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.metrics;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+//This class keeps the live metrics of the job executions, which the BatchController polls while the jobs run. Only the metrics of the latest executions are kept.
+@ApplicationScoped
+public class JobMetricsRegistry {
+
+    private static final int MAX_EXECUTIONS = 100;
+
+    private final ConcurrentSkipListMap<Long, JobMetrics> metrics = new ConcurrentSkipListMap<>();
+
+    public JobMetrics start(long executionId) {
+        JobMetrics jobMetrics = new JobMetrics(executionId);
+        metrics.put(executionId, jobMetrics);
+        while (metrics.size() > MAX_EXECUTIONS) {
+            metrics.pollFirstEntry();
+        }
+        return jobMetrics;
+    }
+
+    // Retrieves the metrics of the specified job execution, registering them if needed
+    public JobMetrics get(long executionId) {
+        return metrics.computeIfAbsent(executionId, JobMetrics::new);
+    }
+
+    // Retrieves the metrics of the specified job execution, or null if not available
+    public JobMetrics find(long executionId) {
+        return metrics.get(executionId);
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.batch.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.jboss.as.quickstarts.batch.model.Contact;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the parsing of the records of a memory mapped file, which must match the lines read mode.
+ */
+public class MappedRecordsParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(String records) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), records.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private MappedRecordsParser parser(String records, long windowSize) throws IOException {
+        return new MappedRecordsParser(write(records), StandardCharsets.UTF_8, (byte) '|', 0, Long.MAX_VALUE, windowSize);
+    }
+
+    private static void assertContact(int id, String name, String phone, Contact contact) {
+        assertEquals(Integer.valueOf(id), contact.getId());
+        assertEquals(name, contact.getName());
+        assertEquals(phone, contact.getPhone());
+    }
+
+    @Test
+    public void testRecords() throws IOException {
+        try (MappedRecordsParser parser = parser("1|John|555-1234\r\n-2|Jane|555-4321\n+3|Joe|555-0000", 1024)) {
+            assertContact(1, "John", "555-1234", parser.next());
+            assertContact(-2, "Jane", "555-4321", parser.next());
+            assertContact(3, "Joe", "555-0000", parser.next());
+            assertNull(parser.next());
+        }
+    }
+
+    @Test
+    public void testIdLimits() throws IOException {
+        try (MappedRecordsParser parser = parser("2147483647|Max|1\n-2147483648|Min|2\n", 1024)) {
+            assertContact(Integer.MAX_VALUE, "Max", "1", parser.next());
+            assertContact(Integer.MIN_VALUE, "Min", "2", parser.next());
+            assertNull(parser.next());
+        }
+    }
+
+    @Test
+    public void testInvalidIds() throws IOException {
+        for (String id : new String[] { "", "-", "+", "2147483648", "-2147483649", "12345678901", "1a" }) {
+            try (MappedRecordsParser parser = parser(id + "|John|555-1234\n", 1024)) {
+                parser.next();
+                fail("Parsed id " + id);
+            } catch (NumberFormatException e) {
+                // the same as Integer.parseInt in the lines read mode
+                try {
+                    Integer.parseInt(id);
+                    fail("Integer.parseInt parsed id " + id);
+                } catch (NumberFormatException expected) {
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRecordsCrossingWindows() throws IOException {
+        StringBuilder records = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            records.append(i).append("|Name ").append(i).append('|').append(i * 7).append('\n');
+        }
+        // records of 11 to 15 bytes, most of them crossing a window boundary
+        try (MappedRecordsParser parser = parser(records.toString(), 20)) {
+            for (int i = 0; i < 100; i++) {
+                assertContact(i, "Name " + i, String.valueOf(i * 7), parser.next());
+            }
+            assertNull(parser.next());
+            assertEquals(records.length(), parser.getOffset());
+        }
+    }
+
+    @Test
+    public void testSkip() throws IOException {
+        try (MappedRecordsParser parser = parser("1|John|1\n2|Jane|2\n3|Joe|3\n4|Jim|4", 10)) {
+            parser.skip(2);
+            assertContact(3, "Joe", "3", parser.next());
+            parser.skip(5);
+            assertNull(parser.next());
+        }
+    }
+
+    @Test
+    public void testRecordLargerThanWindow() throws IOException {
+        try (MappedRecordsParser parser = parser("1|A name longer than the window|555-1234\n2|B|1\n", 16)) {
+            parser.next();
+            fail("Parsed a record larger than the window");
+        } catch (IOException expected) {
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+
+// An application wide cache of the members ordered by name, loaded once from the repository, and then updated
+// incrementally with the members registered, instead of reloading all members on every request. Readers get an
+// immutable snapshot of the members.
+@ApplicationScoped
+public class MemberCache {
+
+    // the same order as MemberRepository.findAllOrderedByName(), with the id to order members with the same name
+    private static final Comparator<Member> ORDER_BY_NAME = Comparator.comparing(Member::getName).thenComparing(Member::getId);
+
+    @Inject
+    private MemberRepository memberRepository;
+
+    private volatile List<Member> members;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong updates = new AtomicLong();
+
+    public List<Member> getMembers() {
+        List<Member> snapshot = members;
+        if (snapshot != null) {
+            hits.incrementAndGet();
+            return snapshot;
+        }
+        synchronized (this) {
+            if (members == null) {
+                misses.incrementAndGet();
+                members = Collections.unmodifiableList(new ArrayList<>(memberRepository.findAllOrderedByName()));
+            } else {
+                hits.incrementAndGet();
+            }
+            return members;
+        }
+    }
+
+    // Only members whose registration was committed are added, and only once, since a member committed before the cache
+    // was loaded is already in it
+    public void onMemberRegistered(@Observes(during = TransactionPhase.AFTER_SUCCESS) final Member member) {
+        Member cachedMember = copy(member);
+        synchronized (this) {
+            if (members == null) {
+                // not loaded yet, the member will be loaded with all the others
+                return;
+            }
+            int index = Collections.binarySearch(members, cachedMember, ORDER_BY_NAME);
+            if (index >= 0) {
+                return;
+            }
+            List<Member> newMembers = new ArrayList<>(members.size() + 1);
+            newMembers.addAll(members);
+            newMembers.add(-index - 1, cachedMember);
+            members = Collections.unmodifiableList(newMembers);
+            updates.incrementAndGet();
+        }
+    }
+
+    // The members registered in bulk are added with a single copy of the cached members
+    public void onMembersRegistered(@Observes(during = TransactionPhase.AFTER_SUCCESS) final List<Member> registeredMembers) {
+        List<Member> cachedMembers = new ArrayList<>(registeredMembers.size());
+        for (Member member : registeredMembers) {
+            cachedMembers.add(copy(member));
+        }
+        synchronized (this) {
+            if (members == null) {
+                return;
+            }
+            cachedMembers.removeIf(member -> Collections.binarySearch(members, member, ORDER_BY_NAME) >= 0);
+            if (cachedMembers.isEmpty()) {
+                return;
+            }
+            // the copies of the registered members are sorted, and then merged in a single pass with the members, already sorted
+            cachedMembers.sort(ORDER_BY_NAME);
+            List<Member> newMembers = new ArrayList<>(members.size() + cachedMembers.size());
+            int i = 0;
+            for (Member member : members) {
+                while (i < cachedMembers.size() && ORDER_BY_NAME.compare(cachedMembers.get(i), member) < 0) {
+                    newMembers.add(cachedMembers.get(i++));
+                }
+                newMembers.add(member);
+            }
+            newMembers.addAll(cachedMembers.subList(i, cachedMembers.size()));
+            members = Collections.unmodifiableList(newMembers);
+            updates.incrementAndGet();
+        }
+    }
+
+    // a copy, so the cache is not changed through the registered instance
+    private static Member copy(Member member) {
+        Member cachedMember = new Member();
+        cachedMember.setId(member.getId());
+        cachedMember.setName(member.getName());
+        cachedMember.setEmail(member.getEmail());
+        cachedMember.setPhoneNumber(member.getPhoneNumber());
+        return cachedMember;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getUpdates() {
+        return updates.get();
+    }
+
+    public int getSize() {
+        List<Member> snapshot = members;
+        return snapshot != null ? snapshot.size() : 0;
+    }
+}
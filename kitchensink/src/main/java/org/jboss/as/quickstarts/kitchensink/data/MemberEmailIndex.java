@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.kitchensink.data;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.Startup;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.as.quickstarts.kitchensink.model.Member;
+
+// An application wide index of the registered member emails, loaded from the repository at startup, and then updated
+// with the members registered, so that checking the uniqueness of an email does not query the database. A member
+// registered concurrently may not be in the index yet, thus the unique constraint of the Member table remains the
+// final check.
+@ApplicationScoped
+public class MemberEmailIndex {
+
+    @Inject
+    private MemberRepository memberRepository;
+
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loaded;
+
+    public void onStartup(@Observes Startup startup) {
+        load();
+    }
+
+    public boolean contains(String email) {
+        if (!loaded) {
+            load();
+        }
+        return emails.contains(email);
+    }
+
+    private synchronized void load() {
+        if (!loaded) {
+            // added to the emails of any member registered meanwhile
+            emails.addAll(memberRepository.findAllEmails());
+            loaded = true;
+        }
+    }
+
+    // Only members whose registration was committed are added
+    public void onMemberRegistered(@Observes(during = TransactionPhase.AFTER_SUCCESS) final Member member) {
+        emails.add(member.getEmail());
+    }
+
+    public void onMembersRegistered(@Observes(during = TransactionPhase.AFTER_SUCCESS) final List<Member> members) {
+        for (Member member : members) {
+            emails.add(member.getEmail());
+        }
+    }
+
+    public int getSize() {
+        return emails.size();
+    }
+}
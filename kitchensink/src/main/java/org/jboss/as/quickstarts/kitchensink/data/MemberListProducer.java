@@ -16,10 +16,7 @@
  */
 package org.jboss.as.quickstarts.kitchensink.data;
 
-import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.RequestScoped;
-import jakarta.enterprise.event.Observes;
-import jakarta.enterprise.event.Reception;
 import jakarta.enterprise.inject.Produces;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
@@ -31,24 +28,14 @@ import org.jboss.as.quickstarts.kitchensink.model.Member;
 public class MemberListProducer {
 
     @Inject
-    private MemberRepository memberRepository;
-
-    private List<Member> members;
+    private MemberCache memberCache;
 
     // @Named provides access the return value via the EL variable name "members" in the UI (e.g.
     // Facelets or JSP view)
+    // The members are retrieved from the application wide cache, which is updated as members are registered
     @Produces
     @Named
     public List<Member> getMembers() {
-        return members;
-    }
-
-    public void onMemberListChanged(@Observes(notifyObserver = Reception.IF_EXISTS) final Member member) {
-        retrieveAllMembersOrderedByName();
-    }
-
-    @PostConstruct
-    public void retrieveAllMembersOrderedByName() {
-        members = memberRepository.findAllOrderedByName();
+        return memberCache.getMembers();
     }
 }
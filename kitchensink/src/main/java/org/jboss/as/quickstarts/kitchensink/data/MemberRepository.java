@@ -19,10 +19,13 @@ package org.jboss.as.quickstarts.kitchensink.data;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.jboss.as.quickstarts.kitchensink.model.Member;
 
@@ -32,19 +35,19 @@ public class MemberRepository {
     @Inject
     private EntityManager em;
 
+    @PersistenceUnit
+    private EntityManagerFactory emf;
+
     public Member findById(Long id) {
         return em.find(Member.class, id);
     }
 
-    public Member findByEmail(String email) {
+    public List<String> findAllEmails() {
         CriteriaBuilder cb = em.getCriteriaBuilder();
-        CriteriaQuery<Member> criteria = cb.createQuery(Member.class);
+        CriteriaQuery<String> criteria = cb.createQuery(String.class);
         Root<Member> member = criteria.from(Member.class);
-        // Swap criteria statements if you would like to try out type-safe criteria queries, a new
-        // feature in JPA 2.0
-        // criteria.select(member).where(cb.equal(member.get(Member_.email), email));
-        criteria.select(member).where(cb.equal(member.get("email"), email));
-        return em.createQuery(criteria).getSingleResult();
+        criteria.select(member.get("email"));
+        return em.createQuery(criteria).getResultList();
     }
 
     public List<Member> findAllOrderedByName() {
@@ -53,8 +56,47 @@ public class MemberRepository {
         Root<Member> member = criteria.from(Member.class);
         // Swap criteria statements if you would like to try out type-safe criteria queries, a new
         // feature in JPA 2.0
-        // criteria.select(member).orderBy(cb.asc(member.get(Member_.name)));
-        criteria.select(member).orderBy(cb.asc(member.get("name")));
+        // criteria.select(member).orderBy(cb.asc(member.get(Member_.name)), cb.asc(member.get(Member_.id)));
+        // the id orders the members with the same name, as MemberCache does
+        criteria.select(member).orderBy(cb.asc(member.get("name")), cb.asc(member.get("id")));
         return em.createQuery(criteria).getResultList();
     }
+
+    // Retrieves the page of members ordered by name, and then id, after the specified member name and id (a keyset, which
+    // unlike an offset does not require the database to skip the members in previous pages), or the first page if no name
+    public List<Member> findPageOrderedByName(String afterName, Long afterId, int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Member> criteria = cb.createQuery(Member.class);
+        Root<Member> member = criteria.from(Member.class);
+        criteria.select(member).orderBy(cb.asc(member.get("name")), cb.asc(member.get("id")));
+        if (afterName != null) {
+            criteria.where(cb.or(cb.greaterThan(member.get("name"), afterName),
+                cb.and(cb.equal(member.get("name"), afterName), cb.greaterThan(member.get("id"), afterId))));
+        }
+        return em.createQuery(criteria).setMaxResults(limit).getResultList();
+    }
+
+    // Passes all members ordered by name, and then id, to the consumer, as these are read from the database. Each
+    // member is detached once consumed, thus memory use does not grow with the number of members.
+    public void forEachOrderedByName(Consumer<Member> consumer) {
+        // an application-managed entity manager, so that no transaction is kept open while the members are consumed
+        // and closed explicitly, since an EntityManager is not AutoCloseable before JPA 3.2
+        EntityManager streamEm = emf.createEntityManager();
+        try {
+            CriteriaBuilder cb = streamEm.getCriteriaBuilder();
+            CriteriaQuery<Member> criteria = cb.createQuery(Member.class);
+            Root<Member> member = criteria.from(Member.class);
+            criteria.select(member).orderBy(cb.asc(member.get("name")), cb.asc(member.get("id")));
+            streamEm.createQuery(criteria)
+                .setHint("org.hibernate.fetchSize", 100)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()
+                .forEach(m -> {
+                    consumer.accept(m);
+                    streamEm.detach(m);
+                });
+        } finally {
+            streamEm.close();
+        }
+    }
 }
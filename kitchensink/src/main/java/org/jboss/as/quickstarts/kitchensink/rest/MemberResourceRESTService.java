@@ -16,8 +16,11 @@
  */
 package org.jboss.as.quickstarts.kitchensink.rest;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -25,7 +28,8 @@ import java.util.logging.Logger;
 
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
-import jakarta.persistence.NoResultException;
+import jakarta.json.Json;
+import jakarta.json.stream.JsonGenerator;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.ValidationException;
@@ -36,10 +40,16 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
 
+import org.jboss.as.quickstarts.kitchensink.data.MemberCache;
+import org.jboss.as.quickstarts.kitchensink.data.MemberEmailIndex;
 import org.jboss.as.quickstarts.kitchensink.data.MemberRepository;
 import org.jboss.as.quickstarts.kitchensink.model.Member;
 import org.jboss.as.quickstarts.kitchensink.service.MemberRegistration;
@@ -53,6 +63,12 @@ import org.jboss.as.quickstarts.kitchensink.service.MemberRegistration;
 @RequestScoped
 public class MemberResourceRESTService {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_BULK_SIZE = 10000;
+
     @Inject
     private Logger log;
 
@@ -62,13 +78,99 @@ public class MemberResourceRESTService {
     @Inject
     private MemberRepository repository;
 
+    @Inject
+    private MemberCache memberCache;
+
+    @Inject
+    private MemberEmailIndex memberEmailIndex;
+
     @Inject
     MemberRegistration registration;
 
+    @Context
+    private UriInfo uriInfo;
+
+    /**
+     * Retrieves the members ordered by name. By default all members are returned, from the member list cache. If the
+     * "stream" query param is true then all members are instead read from the database, and written as these are read,
+     * in constant memory. If the "after" (the name and id, separated by a comma, of the last member of the previous page)
+     * or "limit" query params are present then a single page of members is returned, with a "next" link to the next page.
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response listAllMembers(@QueryParam("after") String after, @QueryParam("limit") Integer limit,
+            @QueryParam("stream") boolean stream) {
+        if (stream) {
+            return Response.ok(streamMembers()).build();
+        }
+        if (after == null && limit == null) {
+            return Response.ok(memberCache.getMembers()).build();
+        }
+        return listMembersPage(after, limit == null ? DEFAULT_PAGE_SIZE : limit);
+    }
+
+    private Response listMembersPage(String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new WebApplicationException("limit must be between 1 and " + MAX_PAGE_SIZE, Response.Status.BAD_REQUEST);
+        }
+        String afterName = null;
+        Long afterId = null;
+        if (after != null) {
+            // the name may contain commas, but the id may not, thus the separator is the last comma
+            int separator = after.lastIndexOf(',');
+            try {
+                afterId = Long.valueOf(after.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                separator = -1;
+            }
+            if (separator < 0) {
+                throw new WebApplicationException("after must be the name and id of a member, separated by a comma",
+                    Response.Status.BAD_REQUEST);
+            }
+            afterName = after.substring(0, separator);
+        }
+        List<Member> members = repository.findPageOrderedByName(afterName, afterId, limit);
+        Response.ResponseBuilder builder = Response.ok(members);
+        if (members.size() == limit) {
+            // a full page, there may be more members
+            Member last = members.get(members.size() - 1);
+            builder.link(uriInfo.getRequestUriBuilder()
+                .replaceQueryParam("after", last.getName() + "," + last.getId())
+                .replaceQueryParam("limit", limit)
+                .build(), "next");
+        }
+        return builder.build();
+    }
+
+    private StreamingOutput streamMembers() {
+        return output -> {
+            try (JsonGenerator generator = Json.createGenerator(output)) {
+                generator.writeStartArray();
+                repository.forEachOrderedByName(member -> generator.writeStartObject()
+                    .write("id", member.getId())
+                    .write("name", member.getName())
+                    .write("email", member.getEmail())
+                    .write("phoneNumber", member.getPhoneNumber())
+                    .writeEnd());
+                generator.writeEnd();
+            }
+        };
+    }
+
+    /**
+     * Retrieves the statistics of the member list cache, for monitoring.
+     */
     @GET
+    @Path("/cache")
     @Produces(MediaType.APPLICATION_JSON)
-    public List<Member> listAllMembers() {
-        return repository.findAllOrderedByName();
+    public Map<String, Long> getMemberCacheStatistics() {
+        Map<String, Long> statistics = new HashMap<>();
+        statistics.put("size", (long) memberCache.getSize());
+        statistics.put("hits", memberCache.getHits());
+        statistics.put("misses", memberCache.getMisses());
+        statistics.put("updates", memberCache.getUpdates());
+        statistics.put("emails", (long) memberEmailIndex.getSize());
+        return statistics;
     }
 
     @GET
@@ -110,13 +212,105 @@ public class MemberResourceRESTService {
             responseObj.put("email", "Email taken");
             builder = Response.status(Response.Status.CONFLICT).entity(responseObj);
         } catch (Exception e) {
-            // Handle generic exceptions
+            if (isUniqueConstraintViolation(e)) {
+                // Handle the unique constrain violation of a member registered concurrently, not in the email index yet
+                Map<String, String> responseObj = new HashMap<>();
+                responseObj.put("email", "Email taken");
+                builder = Response.status(Response.Status.CONFLICT).entity(responseObj);
+            } else {
+                // Handle generic exceptions
+                Map<String, String> responseObj = new HashMap<>();
+                responseObj.put("error", e.getMessage());
+                builder = Response.status(Response.Status.BAD_REQUEST).entity(responseObj);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Creates new members from the array of values provided, in a single transaction. All members are validated first, and the
+     * uniqueness of all emails is checked with the email index. Returns a Jakarta REST response with either 200 ok, and the
+     * result of each member, in the order provided, which is either "created" with the member id, or "invalid" or "conflict"
+     * with a map of fields, and related errors, or with a map of the error which prevented the creation of all members.
+     */
+    @POST
+    @Path("/bulk")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response createMembers(List<Member> members) {
+        if (members == null || members.isEmpty() || members.size() > MAX_BULK_SIZE) {
+            Map<String, String> responseObj = new HashMap<>();
+            responseObj.put("error", "Between 1 and " + MAX_BULK_SIZE + " members expected");
+            return Response.status(Response.Status.BAD_REQUEST).entity(responseObj).build();
+        }
+
+        List<Map<String, Object>> results = new ArrayList<>(members.size());
+        List<Member> validMembers = new ArrayList<>(members.size());
+        Set<String> emails = new HashSet<>();
+        for (Member member : members) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            results.add(result);
+            if (member == null) {
+                result.put("status", "invalid");
+                result.put("errors", Map.of("member", "must not be null"));
+                continue;
+            }
+            Set<ConstraintViolation<Member>> violations = validator.validate(member);
+            if (!violations.isEmpty()) {
+                result.put("status", "invalid");
+                result.put("errors", toErrors(violations));
+            } else if (!emails.add(member.getEmail())) {
+                // the email of a previous member of the batch
+                result.put("status", "conflict");
+                result.put("errors", Map.of("email", "Email taken"));
+            } else {
+                validMembers.add(member);
+            }
+        }
+
+        // Check the uniqueness of the email addresses of all valid members
+        Set<String> existingEmails = new HashSet<>();
+        List<Member> newMembers = new ArrayList<>(validMembers.size());
+        for (Member member : validMembers) {
+            if (emailAlreadyExists(member.getEmail())) {
+                existingEmails.add(member.getEmail());
+            } else {
+                newMembers.add(member);
+            }
+        }
+
+        try {
+            if (!newMembers.isEmpty()) {
+                registration.registerAll(newMembers);
+            }
+        } catch (Exception e) {
+            if (isUniqueConstraintViolation(e)) {
+                // Handle the unique constrain violation of a member registered concurrently, no member was created
+                Map<String, String> responseObj = new HashMap<>();
+                responseObj.put("email", "Email taken");
+                return Response.status(Response.Status.CONFLICT).entity(responseObj).build();
+            }
+            // Handle generic exceptions, no member was created
             Map<String, String> responseObj = new HashMap<>();
             responseObj.put("error", e.getMessage());
-            builder = Response.status(Response.Status.BAD_REQUEST).entity(responseObj);
+            return Response.status(Response.Status.BAD_REQUEST).entity(responseObj).build();
         }
 
-        return builder.build();
+        for (int i = 0; i < members.size(); i++) {
+            Map<String, Object> result = results.get(i);
+            if (result.isEmpty()) {
+                Member member = members.get(i);
+                if (existingEmails.contains(member.getEmail())) {
+                    result.put("status", "conflict");
+                    result.put("errors", Map.of("email", "Email taken"));
+                } else {
+                    result.put("status", "created");
+                    result.put("id", member.getId());
+                }
+            }
+        }
+        return Response.ok(results).build();
     }
 
     /**
@@ -157,29 +351,41 @@ public class MemberResourceRESTService {
     private Response.ResponseBuilder createViolationResponse(Set<ConstraintViolation<?>> violations) {
         log.fine("Validation completed. violations found: " + violations.size());
 
-        Map<String, String> responseObj = new HashMap<>();
+        return Response.status(Response.Status.BAD_REQUEST).entity(toErrors(violations));
+    }
+
+    private Map<String, String> toErrors(Set<? extends ConstraintViolation<?>> violations) {
+        Map<String, String> errors = new HashMap<>();
 
         for (ConstraintViolation<?> violation : violations) {
-            responseObj.put(violation.getPropertyPath().toString(), violation.getMessage());
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
         }
 
-        return Response.status(Response.Status.BAD_REQUEST).entity(responseObj);
+        return errors;
     }
 
     /**
-     * Checks if a member with the same email address is already registered. This is the only way to easily capture the
-     * "@UniqueConstraint(columnNames = "email")" constraint from the Member class.
+     * Checks if a member with the same email address is already registered, using the email index instead of querying the
+     * database. A member registered concurrently may be missed, and then the "@UniqueConstraint(columnNames = "email")"
+     * constraint from the Member class fails the registration.
      *
      * @param email The email to check
      * @return True if the email already exists, and false otherwise
      */
     public boolean emailAlreadyExists(String email) {
-        Member member = null;
-        try {
-            member = repository.findByEmail(email);
-        } catch (NoResultException e) {
-            // ignore
+        return memberEmailIndex.contains(email);
+    }
+
+    // Checks if the exception was caused by the violation of a database unique constraint
+    private boolean isUniqueConstraintViolation(Throwable e) {
+        // the SQL state class 23 is an integrity constraint violation, whichever the driver, unlike the
+        // SQLIntegrityConstraintViolationException subclass, which only some drivers throw
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && ((SQLException) cause).getSQLState() != null
+                    && ((SQLException) cause).getSQLState().startsWith("23")) {
+                return true;
+            }
         }
-        return member != null;
+        return false;
     }
 }
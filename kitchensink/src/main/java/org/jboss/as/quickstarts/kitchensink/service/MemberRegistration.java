@@ -22,6 +22,7 @@ import jakarta.ejb.Stateless;
 import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import java.util.List;
 import java.util.logging.Logger;
 
 // The @Stateless annotation eliminates the need for manual transaction demarcation
@@ -37,9 +38,23 @@ public class MemberRegistration {
     @Inject
     private Event<Member> memberEventSrc;
 
+    @Inject
+    private Event<List<Member>> membersEventSrc;
+
     public void register(Member member) throws Exception {
         log.info("Registering " + member.getName());
         em.persist(member);
         memberEventSrc.fire(member);
     }
+
+    // Registers all the members in a single transaction, the inserts are sent to the database in JDBC batches (see the
+    // hibernate.jdbc.batch_size property in persistence.xml), and a single event is fired for all the members
+    public void registerAll(List<Member> members) throws Exception {
+        log.info("Registering " + members.size() + " members");
+        for (Member member : members) {
+            em.persist(member);
+        }
+        em.flush();
+        membersEventSrc.fire(members);
+    }
 }
@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.kitchensink.test;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashSet;
+import java.util.Set;
+
+public class MemberBulkRegistrationIT {
+
+    private static final String DEFAULT_SERVER_HOST = "http://localhost:8080";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    public void testRegisterBulk() throws Exception {
+        String serverHost = System.getenv("SERVER_HOST");
+        if (serverHost == null) {
+            serverHost = System.getProperty("server.host");
+        }
+        if (serverHost == null) {
+            serverHost = DEFAULT_SERVER_HOST;
+        }
+        String membersUrl = serverHost + "/kitchensink/rest/members";
+        // unique emails, so that the test may be run repeatedly
+        long suffix = System.currentTimeMillis();
+        String existingEmail = "existing." + suffix + "@mailinator.com";
+        HttpResponse<String> response = post(membersUrl, member("Bulk Doe", existingEmail).toString());
+        Assert.assertEquals(200, response.statusCode());
+
+        JsonArray members = Json.createArrayBuilder()
+                .add(member("Bulk Doe", "bulk1." + suffix + "@mailinator.com"))
+                .add(member("Bulk Doe 2", "invalid email"))
+                .add(member("Bulk Doe", "bulk1." + suffix + "@mailinator.com"))
+                .add(member("Bulk Doe", existingEmail))
+                .add(member("Bulk Doe", "bulk2." + suffix + "@mailinator.com"))
+                .build();
+        response = post(membersUrl + "/bulk", members.toString());
+        Assert.assertEquals(200, response.statusCode());
+        JsonArray results = read(response.body());
+        Assert.assertEquals(5, results.size());
+
+        // the valid members
+        JsonObject result = results.getJsonObject(0);
+        Assert.assertEquals("created", result.getString("status"));
+        long firstId = result.getJsonNumber("id").longValue();
+        result = results.getJsonObject(4);
+        Assert.assertEquals("created", result.getString("status"));
+        long secondId = result.getJsonNumber("id").longValue();
+
+        // the member with an invalid name and email
+        result = results.getJsonObject(1);
+        Assert.assertEquals("invalid", result.getString("status"));
+        Assert.assertTrue(result.getJsonObject("errors").containsKey("name"));
+        Assert.assertTrue(result.getJsonObject("errors").containsKey("email"));
+
+        // the member with the email of a previous member of the batch
+        result = results.getJsonObject(2);
+        Assert.assertEquals("conflict", result.getString("status"));
+        Assert.assertEquals("Email taken", result.getJsonObject("errors").getString("email"));
+
+        // the member with the email of a registered member
+        result = results.getJsonObject(3);
+        Assert.assertEquals("conflict", result.getString("status"));
+        Assert.assertEquals("Email taken", result.getJsonObject("errors").getString("email"));
+
+        // only the valid members were created
+        Set<Long> ids = new HashSet<>();
+        int existing = 0;
+        HttpRequest request = HttpRequest.newBuilder(new URI(membersUrl)).GET().build();
+        for (JsonObject member : read(client.send(request, HttpResponse.BodyHandlers.ofString()).body()).getValuesAs(JsonObject.class)) {
+            ids.add(member.getJsonNumber("id").longValue());
+            if (member.getString("email").equals(existingEmail)) {
+                existing++;
+            }
+        }
+        Assert.assertTrue(ids.contains(firstId));
+        Assert.assertTrue(ids.contains(secondId));
+        Assert.assertEquals(1, existing);
+    }
+
+    @Test
+    public void testRegisterEmptyBulk() throws Exception {
+        String serverHost = System.getenv("SERVER_HOST");
+        if (serverHost == null) {
+            serverHost = System.getProperty("server.host");
+        }
+        if (serverHost == null) {
+            serverHost = DEFAULT_SERVER_HOST;
+        }
+        HttpResponse<String> response = post(serverHost + "/kitchensink/rest/members/bulk", "[]");
+        Assert.assertEquals(400, response.statusCode());
+    }
+
+    private static JsonObject member(String name, String email) {
+        return Json.createObjectBuilder()
+                .add("name", name)
+                .add("email", email)
+                .add("phoneNumber", "2125551234").build();
+    }
+
+    private HttpResponse<String> post(String url, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(new URI(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JsonArray read(String body) {
+        try (JsonReader reader = Json.createReader(new StringReader(body))) {
+            return reader.readArray();
+        }
+    }
+}
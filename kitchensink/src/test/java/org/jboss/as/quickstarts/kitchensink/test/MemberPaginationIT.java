@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.kitchensink.test;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class MemberPaginationIT {
+
+    private static final String DEFAULT_SERVER_HOST = "http://localhost:8080";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private String membersUrl;
+
+    @Before
+    public void registerMembers() throws Exception {
+        String serverHost = System.getenv("SERVER_HOST");
+        if (serverHost == null) {
+            serverHost = System.getProperty("server.host");
+        }
+        if (serverHost == null) {
+            serverHost = DEFAULT_SERVER_HOST;
+        }
+        membersUrl = serverHost + "/kitchensink/rest/members";
+        // members with the same name, ordered by id, and unique emails, so that the test may be run repeatedly
+        long suffix = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            JsonObject json = Json.createObjectBuilder()
+                    .add("name", "Page Doe")
+                    .add("email", "page" + i + "." + suffix + "@mailinator.com")
+                    .add("phoneNumber", "2125551234").build();
+            HttpRequest request = HttpRequest.newBuilder(new URI(membersUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json.toString()))
+                    .build();
+            Assert.assertEquals(200, client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode());
+        }
+    }
+
+    @Test
+    public void testPagesFollowingNextLinks() throws Exception {
+        List<JsonObject> all = toList(get(membersUrl).body());
+        Assert.assertTrue(all.size() >= 4);
+
+        List<JsonObject> paged = new ArrayList<>();
+        String url = membersUrl + "?limit=2";
+        while (url != null) {
+            HttpResponse<String> response = get(url);
+            Assert.assertEquals(200, response.statusCode());
+            List<JsonObject> page = toList(response.body());
+            Assert.assertTrue(page.size() <= 2);
+            paged.addAll(page);
+            url = getNextLink(response);
+            // only full pages link to a next page
+            Assert.assertTrue(url == null || page.size() == 2);
+        }
+        Assert.assertEquals(ids(all), ids(paged));
+        assertOrderedByNameAndId(paged);
+    }
+
+    @Test
+    public void testPageAfterMember() throws Exception {
+        List<JsonObject> all = toList(get(membersUrl).body());
+        JsonObject first = all.get(0);
+        String after = first.getString("name") + "," + first.getJsonNumber("id").longValue();
+        HttpResponse<String> response = get(membersUrl + "?limit=1&after=" + after.replace(" ", "%20"));
+        Assert.assertEquals(200, response.statusCode());
+        List<JsonObject> page = toList(response.body());
+        Assert.assertEquals(1, page.size());
+        Assert.assertEquals(ids(all.subList(1, 2)), ids(page));
+        Assert.assertNotNull(getNextLink(response));
+    }
+
+    @Test
+    public void testInvalidPageParams() throws Exception {
+        Assert.assertEquals(400, get(membersUrl + "?limit=0").statusCode());
+        Assert.assertEquals(400, get(membersUrl + "?after=Page%20Doe").statusCode());
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        List<JsonObject> all = toList(get(membersUrl).body());
+        HttpResponse<String> response = get(membersUrl + "?stream=true");
+        Assert.assertEquals(200, response.statusCode());
+        List<JsonObject> streamed = toList(response.body());
+        Assert.assertEquals(ids(all), ids(streamed));
+        assertOrderedByNameAndId(streamed);
+        for (JsonObject member : streamed) {
+            Assert.assertTrue(member.containsKey("email"));
+            Assert.assertTrue(member.containsKey("phoneNumber"));
+        }
+    }
+
+    private HttpResponse<String> get(String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(new URI(url))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // the URI of a Link header such as <http://localhost:8080/kitchensink/rest/members?after=...>; rel="next"
+    private static String getNextLink(HttpResponse<String> response) {
+        Optional<String> link = response.headers().allValues("Link").stream()
+                .filter(value -> value.contains("rel=\"next\""))
+                .findFirst();
+        return link.map(value -> value.substring(value.indexOf('<') + 1, value.indexOf('>'))).orElse(null);
+    }
+
+    private static List<JsonObject> toList(String body) {
+        try (JsonReader reader = Json.createReader(new StringReader(body))) {
+            JsonArray array = reader.readArray();
+            return array.getValuesAs(JsonObject.class);
+        }
+    }
+
+    private static List<Long> ids(List<JsonObject> members) {
+        List<Long> ids = new ArrayList<>(members.size());
+        for (JsonObject member : members) {
+            ids.add(member.getJsonNumber("id").longValue());
+        }
+        return ids;
+    }
+
+    private static void assertOrderedByNameAndId(List<JsonObject> members) {
+        for (int i = 1; i < members.size(); i++) {
+            JsonObject previous = members.get(i - 1);
+            JsonObject member = members.get(i);
+            int byName = previous.getString("name").compareTo(member.getString("name"));
+            Assert.assertTrue(byName < 0 || byName == 0
+                    && previous.getJsonNumber("id").longValue() < member.getJsonNumber("id").longValue());
+        }
+    }
+}
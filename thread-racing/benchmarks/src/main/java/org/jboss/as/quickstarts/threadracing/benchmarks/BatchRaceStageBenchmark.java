@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.quickstarts.threadracing.stage.batch.BatchRaceStageItemReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the race batch job's item reader, outside of a batch runtime.
+ *
+ * The item writer is not benchmarked, since it only simulates a write, by sleeping 10ms per item.
+ *
+ * @author Eduardo Martins
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchRaceStageBenchmark {
+
+    private final BatchRaceStageItemReader reader = new BatchRaceStageItemReader();
+
+    /**
+     * Opens the reader, which creates a random number of items, and reads all items.
+     * @param blackhole
+     * @throws Exception
+     */
+    @Benchmark
+    public void readAll(Blackhole blackhole) throws Exception {
+        reader.open(null);
+        Object item;
+        while ((item = reader.readItem()) != null) {
+            blackhole.consume(item);
+        }
+    }
+}
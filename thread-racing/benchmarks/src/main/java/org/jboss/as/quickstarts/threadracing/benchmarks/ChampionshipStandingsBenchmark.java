@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.quickstarts.threadracing.results.ChampionshipStandings;
+import org.jboss.as.quickstarts.threadracing.results.RaceResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the championship standings maintenance, i.e. adding race results and retrieving the sorted entry list.
+ *
+ * The race results are built directly, with racers in random positions, instead of through racer's registrations, which are only created by running a race.
+ *
+ * @author Eduardo Martins
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChampionshipStandingsBenchmark {
+
+    /**
+     * the number of racers in each race
+     */
+    @Param({"4", "100", "10000"})
+    public int racers;
+
+    /**
+     * the number of distinct race results added
+     */
+    private static final int RESULTS = 16;
+
+    private final List<RaceResult> results = new ArrayList<>();
+
+    private ChampionshipStandings standings;
+
+    private int nextResult;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        final List<String> racerNames = new ArrayList<>(racers);
+        for (int i = 1; i <= racers; i++) {
+            racerNames.add("Racer #" + i);
+        }
+        for (int i = 0; i < RESULTS; i++) {
+            final List<String> sortedRacers = new ArrayList<>(racerNames);
+            Collections.shuffle(sortedRacers, random);
+            final RaceResult result = new RaceResult(racers);
+            result.setRacers(sortedRacers);
+            results.add(result);
+        }
+        standings = new ChampionshipStandings();
+        for (RaceResult result : results) {
+            standings.add(result);
+        }
+    }
+
+    private RaceResult nextResult() {
+        final RaceResult result = results.get(nextResult);
+        nextResult = (nextResult + 1) % RESULTS;
+        return result;
+    }
+
+    /**
+     * Adds a race result.
+     * @return
+     */
+    @Benchmark
+    public ChampionshipStandings add() {
+        return standings.add(nextResult());
+    }
+
+    /**
+     * Retrieves the entry list of unchanged standings.
+     * @return
+     */
+    @Benchmark
+    public List<ChampionshipStandings.Entry> getEntryList() {
+        return standings.getEntryList();
+    }
+
+    /**
+     * Adds a race result and retrieves the entry list, i.e. what is done after each race.
+     * @return
+     */
+    @Benchmark
+    public List<ChampionshipStandings.Entry> addAndGetEntryList() {
+        return standings.add(nextResult()).getEntryList();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.quickstarts.threadracing.Race;
+import org.jboss.as.quickstarts.threadracing.Racer;
+import org.jboss.as.quickstarts.threadracing.stage.json.JSONRaceStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the JSON race stage, i.e. the JSON-P build, write and read round trip, and then the stage completion, as a racer runs it.
+ *
+ * The racer is registered in a stub race, which is never run, and has no fans.
+ *
+ * @author Eduardo Martins
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONRaceStageBenchmark {
+
+    private final JSONRaceStage stage = new JSONRaceStage();
+
+    /**
+     * the racer's registration, in the stub race
+     */
+    private Race.Registration registration;
+
+    @Setup
+    public void setup() {
+        final Racer racer = new Racer("Stub Racer");
+        registration = new Race(List.of(racer), Map.of(), new StubRaceBroadcaster(), null).register(racer);
+    }
+
+    @Benchmark
+    public void roundTrip() throws Exception {
+        final long start = System.nanoTime();
+        stage.run(registration);
+        registration.stageCompleted("JSON", System.nanoTime() - start);
+    }
+}
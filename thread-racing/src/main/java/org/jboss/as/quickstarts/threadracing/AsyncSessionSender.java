@@ -0,0 +1,314 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends text messages through a Web Socket {@link jakarta.websocket.Session}, without blocking the threads sending them.
+ *
+ * Messages are put in a bounded, lock-free, queue, which is drained by a single sender, using the session's async remote. There is at most one message send in progress, and once it completes the sender drains the queue again.
+ * Optionally consecutive race progress messages are coalesced into a single frame, while the other messages, e.g. the race results, are always sent in their own frame.
+ *
+ * If the client is slower than the messages being sent, the queue fills up, and the {@link SlowConsumerPolicy} defines what happens to new messages.
+ *
+ * @author Eduardo Martins
+ */
+public class AsyncSessionSender {
+
+    /**
+     * the default max number of queued messages
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * What to do with a new message when the queue is full.
+     */
+    public enum SlowConsumerPolicy {
+        /**
+         * race progress messages are dropped, and the client is told how many were dropped, other messages wait for room in the queue, for up to 30 seconds
+         */
+        DROP_PROGRESS,
+        /**
+         * all messages wait for room in the queue, for up to 30 seconds, which slows down the threads sending messages to the client's pace
+         */
+        BACKPRESSURE,
+        /**
+         * all messages are dropped, and the client is told how many were dropped, thus a slow client never slows down the threads sending messages
+         */
+        DROP
+    }
+
+    /**
+     * the web socket's session where messages are sent.
+     */
+    private final Session session;
+
+    /**
+     * the slow consumer policy
+     */
+    private final SlowConsumerPolicy slowConsumerPolicy;
+
+    /**
+     * if true consecutive progress messages are coalesced into a single frame
+     */
+    private final boolean coalesceProgress;
+
+    /**
+     * the queued messages
+     */
+    private final Queue<Message> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * the queue's free slots
+     */
+    private final Semaphore freeSlots;
+
+    /**
+     * true while there is a sender draining the queue
+     */
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    /**
+     * true once the session was found closed, new messages are then dropped right away
+     */
+    private volatile boolean closed;
+
+    /**
+     * the number of messages dropped, and not yet reported to the client
+     */
+    private final AtomicLong droppedMessages = new AtomicLong();
+
+    /**
+     * the async send completion handler
+     */
+    private final SendHandler sendHandler = new SendHandler() {
+        @Override
+        public void onResult(SendResult result) {
+            if (!result.isOK()) {
+                result.getException().printStackTrace();
+            }
+            sending.set(false);
+            drain();
+        }
+    };
+
+    /**
+     * Creates a new sender, which coalesces and drops progress messages if the client is too slow.
+     * @param session the session where messages will be sent.
+     */
+    public AsyncSessionSender(Session session) {
+        this(session, DEFAULT_CAPACITY, SlowConsumerPolicy.DROP_PROGRESS, true);
+    }
+
+    /**
+     * Creates a new sender.
+     * @param session the session where messages will be sent.
+     * @param capacity the max number of queued messages
+     * @param slowConsumerPolicy what to do with new messages when the queue is full
+     * @param coalesceProgress if true consecutive progress messages are coalesced into a single frame
+     */
+    public AsyncSessionSender(Session session, int capacity, SlowConsumerPolicy slowConsumerPolicy, boolean coalesceProgress) {
+        this.session = session;
+        this.freeSlots = new Semaphore(capacity);
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.coalesceProgress = coalesceProgress;
+    }
+
+    /**
+     * Retrieves the sender's session.
+     * @return
+     */
+    public Session getSession() {
+        return session;
+    }
+
+    /**
+     * Queues a message to the web socket client.
+     * @param message
+     */
+    public void send(String message) {
+        enqueue(new Message(message, false));
+    }
+
+    /**
+     * Queues a race progress message to the web socket client, which may be coalesced with other progress messages.
+     * @param message
+     */
+    public void sendProgress(String message) {
+        enqueue(new Message(message, true));
+    }
+
+    /**
+     * Queues a message, applying the slow consumer policy if the queue is full, and then drains the queue, unless there is a sender already doing it.
+     * @param message
+     */
+    private void enqueue(Message message) {
+        if (closed) {
+            return;
+        }
+        if (!freeSlots.tryAcquire()) {
+            if (slowConsumerPolicy == SlowConsumerPolicy.DROP || (message.progress && slowConsumerPolicy == SlowConsumerPolicy.DROP_PROGRESS)) {
+                droppedMessages.incrementAndGet();
+                return;
+            }
+            try {
+                if (!freeSlots.tryAcquire(30, TimeUnit.SECONDS)) {
+                    droppedMessages.incrementAndGet();
+                    return;
+                }
+                if (closed) {
+                    // the permit was released when the session closed
+                    freeSlots.release();
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedMessages.incrementAndGet();
+                return;
+            }
+        }
+        queue.add(message);
+        if (closed) {
+            // closed meanwhile, drop the message too
+            close();
+            return;
+        }
+        drain();
+    }
+
+    /**
+     * Drains the queue, if there is no sender doing it, by sending the next frame through the session's async remote. The frame is either a single message, or consecutive race progress messages coalesced.
+     */
+    private void drain() {
+        while (!queue.isEmpty() && sending.compareAndSet(false, true)) {
+            final Message first = queue.poll();
+            if (first == null) {
+                // someone else drained the queue in the meantime
+                sending.set(false);
+                continue;
+            }
+            freeSlots.release();
+            final String frame;
+            final long dropped = droppedMessages.getAndSet(0);
+            if (dropped == 0 && !(first.progress && coalesceProgress && isProgressQueued())) {
+                // nothing to add, send the message as is
+                frame = first.text;
+            } else {
+                final StringBuilder sb = new StringBuilder();
+                if (dropped > 0) {
+                    sb.append("(").append(dropped).append(" messages dropped)<br/>");
+                }
+                sb.append(first.text);
+                if (first.progress && coalesceProgress) {
+                    // this is the single queue consumer, so the peeked message is the one polled
+                    Message next;
+                    while ((next = queue.peek()) != null && next.progress) {
+                        queue.poll();
+                        freeSlots.release();
+                        sb.append(next.text);
+                    }
+                }
+                frame = sb.toString();
+            }
+            if (!session.isOpen()) {
+                close();
+                sending.set(false);
+                break;
+            }
+            try {
+                session.getAsyncRemote().sendText(frame, sendHandler);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                sending.set(false);
+                // no send in progress, keep draining
+                continue;
+            }
+            // the send handler drains the queue once the send completes
+            return;
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Drops the queued messages, and releases their slots, once the session is closed, so that threads waiting for room in the queue do not wait for the full timeout, and new messages are dropped right away.
+     */
+    private void close() {
+        closed = true;
+        while (queue.poll() != null) {
+            freeSlots.release();
+        }
+    }
+
+    /**
+     * Checks if the next queued message is a progress message.
+     * @return
+     */
+    private boolean isProgressQueued() {
+        final Message next = queue.peek();
+        return next != null && next.progress;
+    }
+
+    /**
+     * Waits for all queued messages to be sent, e.g. before closing the session.
+     * @param timeout
+     * @param unit
+     * @return true if all messages were sent, false if the wait timed out
+     * @throws InterruptedException
+     */
+    public boolean awaitFlushed(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (this) {
+            while (!queue.isEmpty() || sending.get()) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !session.isOpen()) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100)));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A queued message.
+     */
+    private static class Message {
+
+        private final String text;
+
+        /**
+         * if true the message is a race progress message, which may be coalesced or dropped
+         */
+        private final boolean progress;
+
+        private Message(String text, boolean progress) {
+            this.text = text;
+            this.progress = progress;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The kind of engine, a.k.a. thread, each racer runs on.
+ *
+ * @author Eduardo Martins
+ */
+public enum EngineMode {
+
+    /**
+     * platform threads, created by the container's default {@link jakarta.enterprise.concurrent.ManagedThreadFactory} instance
+     */
+    MANAGED,
+
+    /**
+     * virtual threads, which require a Java SE 21+ runtime, and run racer tasks contextualized by the container's default {@link jakarta.enterprise.concurrent.ContextService} instance
+     */
+    VIRTUAL;
+
+    /**
+     * Retrieves the engine mode with the specified name, ignoring case.
+     * @param name the engine mode name, may be null
+     * @return the engine mode with the specified name, or {@link #MANAGED} if name is null
+     * @throws IllegalArgumentException if there is no engine mode with the specified name
+     */
+    public static EngineMode of(String name) {
+        return name == null ? MANAGED : valueOf(name.trim().toUpperCase());
+    }
+
+    /**
+     * Creates a factory of virtual threads. The app targets Java SE 17, so the Java SE 21 virtual threads API is accessed through reflection.
+     * @return a factory of virtual threads
+     * @throws UnsupportedOperationException if the runtime does not support virtual threads
+     */
+    static ThreadFactory newVirtualThreadFactory() {
+        try {
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            final Object namedBuilder = builderType.getMethod("name", String.class, long.class).invoke(builder, "racer-", 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(namedBuilder);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("virtual threads require a Java SE 21+ runtime", e);
+        }
+    }
+}
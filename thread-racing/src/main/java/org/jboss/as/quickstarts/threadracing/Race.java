@@ -16,19 +16,27 @@
  */
 package org.jboss.as.quickstarts.threadracing;
 
-import org.jboss.as.quickstarts.threadracing.results.ChampionshipStandings;
+import org.jboss.as.quickstarts.threadracing.results.Championship;
 import org.jboss.as.quickstarts.threadracing.results.RaceResult;
-import org.jboss.as.quickstarts.threadracing.results.RaceResults;
+import org.jboss.as.quickstarts.threadracing.results.StageLatency;
+import org.jboss.as.quickstarts.threadracing.stage.LatencyHistogram;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The awesome Jakarta EE thread race. It's the core of the app logic, but has no usage of Jakarta EE technologies, thus of limited interest to study.
  *
+ * A race may have any number of racers, the race's {@link EngineMode} defines which kind of thread each racer runs on, and the race's {@link StageMode} defines if racers run stages sequentially or concurrently.
+ *
  * @author Eduardo Martins
  */
 public class Race {
@@ -58,6 +66,16 @@ public class Race {
      */
     private RaceResult result;
 
+    /**
+     * the racers registrations
+     */
+    private List<Registration> registrations;
+
+    /**
+     * the latency histograms of each race stage, for all racers
+     */
+    private Map<String, LatencyHistogram> stageLatencies;
+
     /**
      * the race's environment
      */
@@ -69,48 +87,55 @@ public class Race {
     private final RaceBroadcaster broadcaster;
 
     /**
-     * the past race results
+     * the championship, which stores the race result and updates the standings with it
      */
-    private final RaceResults results;
+    private final Championship championship;
 
     /**
-     * the racer #1
+     * the racers, the registration number of each racer is its index in the list plus 1
      */
-    private final Racer racer1;
+    private final List<Racer> racers;
 
     /**
-     * the racer #2
+     * the kind of thread each racer runs on
      */
-    private final Racer racer2;
+    private final EngineMode engineMode;
 
     /**
-     * the racer #3
+     * how each racer runs the race stages
      */
-    private final Racer racer3;
+    private final StageMode stageMode;
 
     /**
-     * the racer #4
+     * Creates a new race with the specified racers and environment, where racers run on managed threads.
+     * @param racers
+     * @param environment
+     * @param broadcaster the broadcaster that will be used to update fans about the race progress.
+     * @param championship the championship, which stores the race results and standings
      */
-    private final Racer racer4;
+    public Race(List<? extends Racer> racers, Map<String, String> environment, RaceBroadcaster broadcaster, Championship championship) {
+        this(racers, EngineMode.MANAGED, StageMode.SEQUENTIAL, environment, broadcaster, championship);
+    }
 
     /**
-     * Creates a new race with the specified racers and environment.
-     * @param racer1
-     * @param racer2
-     * @param racer3
-     * @param racer4
+     * Creates a new race with the specified racers, engine and stage modes, and environment.
+     * @param racers
+     * @param engineMode the kind of thread each racer runs on
+     * @param stageMode how each racer runs the race stages
      * @param environment
      * @param broadcaster the broadcaster that will be used to update fans about the race progress.
-     * @param results the race results
+     * @param championship the championship, which stores the race results and standings
      */
-    public Race(Racer racer1, Racer racer2, Racer racer3, Racer racer4, Map<String, String> environment, RaceBroadcaster broadcaster, RaceResults results) {
-        this.racer1 = racer1;
-        this.racer2 = racer2;
-        this.racer3 = racer3;
-        this.racer4 = racer4;
+    public Race(List<? extends Racer> racers, EngineMode engineMode, StageMode stageMode, Map<String, String> environment, RaceBroadcaster broadcaster, Championship championship) {
+        if (racers.isEmpty()) {
+            throw new IllegalArgumentException("a race needs at least one racer");
+        }
+        this.racers = new ArrayList<>(racers);
+        this.engineMode = engineMode;
+        this.stageMode = stageMode;
         this.environment = environment;
         this.broadcaster = broadcaster;
-        this.results = results;
+        this.championship = championship;
     }
 
     /**
@@ -131,21 +156,40 @@ public class Race {
      * Resets the race state.
      */
     private void reset() {
-        startBarrier = new CyclicBarrier(5);
-        endCountDownLatch = new CountDownLatch(4);
+        final int racersCount = racers.size();
+        startBarrier = new CyclicBarrier(racersCount + 1);
+        endCountDownLatch = new CountDownLatch(racersCount);
         donePosition = new AtomicInteger(1);
-        abortedPosition = new AtomicInteger(4);
-        result = new RaceResult();
+        abortedPosition = new AtomicInteger(racersCount);
+        result = new RaceResult(racersCount);
+        registrations = new ArrayList<>(racersCount);
+        stageLatencies = new ConcurrentHashMap<>();
     }
 
     /**
      * Registers all racers.
      */
     private void registerRacers() {
-        racer1.setRegistration(new Registration(racer1, 1));
-        racer2.setRegistration(new Registration(racer2, 2));
-        racer3.setRegistration(new Registration(racer3, 3));
-        racer4.setRegistration(new Registration(racer4, 4));
+        for (int i = 0; i < racers.size(); i++) {
+            final Racer racer = racers.get(i);
+            final Registration registration = new Registration(racer, i + 1);
+            registrations.add(registration);
+            racer.setRegistration(registration);
+        }
+    }
+
+    /**
+     * Registers a racer without running the race, so that race stages may be run on their own, e.g. by the JMH benchmarks.
+     * @param racer
+     * @return the racer's registration
+     */
+    public synchronized Registration register(Racer racer) {
+        if (registrations == null) {
+            reset();
+        }
+        final Registration registration = new Registration(racer, registrations.size() + 1);
+        registrations.add(registration);
+        return registration;
     }
 
     /**
@@ -153,10 +197,16 @@ public class Race {
      */
     private void startEngines() {
         broadcaster.startYourEngines();
-        racer1.startEngine();
-        racer2.startEngine();
-        racer3.startEngine();
-        racer4.startEngine();
+        if (engineMode == EngineMode.VIRTUAL) {
+            final ThreadFactory virtualThreadFactory = EngineMode.newVirtualThreadFactory();
+            for (Racer racer : racers) {
+                racer.startVirtualEngine(virtualThreadFactory);
+            }
+        } else {
+            for (Racer racer : racers) {
+                racer.startEngine();
+            }
+        }
     }
 
     /**
@@ -181,9 +231,26 @@ public class Race {
      * Process the race result.
      */
     private void processResult() {
-        results.add(result);
+        addStageLatencies();
+        // the result and the standings are stored in a single transaction
+        championship.add(result);
         broadcaster.raceResult(result);
-        broadcaster.championshipStandings(new ChampionshipStandings().addAll(results).getEntryList());
+        broadcaster.championshipStandings(championship.getEntryList());
+    }
+
+    /**
+     * Adds the stage latencies to the race result, first the ones aggregating all racers, then each racer's ones.
+     */
+    private void addStageLatencies() {
+        final List<StageLatency> resultStageLatencies = result.getStageLatencies();
+        for (Map.Entry<String, LatencyHistogram> stageLatency : new TreeMap<>(stageLatencies).entrySet()) {
+            resultStageLatencies.add(new StageLatency(stageLatency.getKey(), null, stageLatency.getValue()));
+        }
+        for (Registration registration : registrations) {
+            for (Map.Entry<String, Long> stageLatency : new TreeMap<>(registration.racerStageLatencies).entrySet()) {
+                resultStageLatencies.add(new StageLatency(stageLatency.getKey(), registration.racer.getName(), stageLatency.getValue()));
+            }
+        }
     }
 
     /**
@@ -198,6 +265,11 @@ public class Race {
          */
         private final Racer racer;
 
+        /**
+         * the racer's latency of each completed stage, in microseconds
+         */
+        private final Map<String, Long> racerStageLatencies = new ConcurrentHashMap<>();
+
         /**
          *
          * @param racer
@@ -216,6 +288,17 @@ public class Race {
             startBarrier.await(30, TimeUnit.SECONDS);
         }
 
+        /**
+         * The racer has completed a race stage.
+         * @param stage the stage's name
+         * @param latencyNanos the time the racer took to complete the stage, in nanoseconds
+         */
+        public void stageCompleted(String stage, long latencyNanos) {
+            stageLatencies.computeIfAbsent(stage, k -> new LatencyHistogram()).record(latencyNanos, TimeUnit.NANOSECONDS);
+            racerStageLatencies.put(stage, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            broadcast("completed the " + stage + " stage.");
+        }
+
         /**
          * The racer has finished the race.
          */
@@ -245,6 +328,14 @@ public class Race {
             return environment;
         }
 
+        /**
+         * Retrieves how the racer should run the race stages.
+         * @return
+         */
+        public StageMode getStageMode() {
+            return stageMode;
+        }
+
         /**
          * Retrieves the registered racer.
          * @return
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+import org.jboss.as.quickstarts.threadracing.legends.JimmieThronson;
+import org.jboss.as.quickstarts.threadracing.legends.MichaelThrumacher;
+import org.jboss.as.quickstarts.threadracing.legends.SebastienThroeb;
+import org.jboss.as.quickstarts.threadracing.legends.ValentinoThrossi;
+import org.jboss.as.quickstarts.threadracing.results.Championship;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.websocket.Session;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The race hub runs scheduled races, each broadcast to all subscribed spectators, instead of a race for each spectator.
+ *
+ * Each race message is built once, and then handed to each spectator's {@link AsyncSessionSender}, which sends it as is, and drops messages if the spectator is too slow, so that a slow spectator never slows down the race, or the other spectators.
+ * Spectators joining between or during races receive a snapshot of the current championship standings.
+ *
+ * @author Eduardo Martins
+ */
+@ApplicationScoped
+public class RaceHub {
+
+    /**
+     * the delay between the end of a race and the start of the next one, in seconds
+     */
+    private static final long RACE_INTERVAL_SECONDS = 10;
+
+    @Inject
+    private JimmieThronson racer1;
+
+    @Inject
+    private MichaelThrumacher racer2;
+
+    @Inject
+    private SebastienThroeb racer3;
+
+    @Inject
+    private ValentinoThrossi racer4;
+
+    @Inject
+    private Championship championship;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduledExecutorService;
+
+    /**
+     * the spectator's senders, keyed by session
+     */
+    private final Map<Session, AsyncSessionSender> spectators = new ConcurrentHashMap<>();
+
+    /**
+     * the race environment, captured from the last spectator's handshake
+     */
+    private volatile Map<String, String> environment;
+
+    /**
+     * the html of the current championship standings, built once for all spectators
+     */
+    private volatile String standingsFrame;
+
+    /**
+     * true while a race is in progress
+     */
+    private volatile boolean racing;
+
+    /**
+     * the scheduled races
+     */
+    private ScheduledFuture<?> scheduledRaces;
+
+    /**
+     * Schedules the races.
+     */
+    @PostConstruct
+    public void start() {
+        standingsFrame = WebSocketRaceBroadcaster.toHtml(championship.getEntryList());
+        scheduledRaces = scheduledExecutorService.scheduleWithFixedDelay(this::runRace, RACE_INTERVAL_SECONDS, RACE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Cancels the scheduled races.
+     */
+    @PreDestroy
+    public void stop() {
+        scheduledRaces.cancel(false);
+    }
+
+    /**
+     * Subscribes a spectator.
+     * @param session the spectator's session
+     * @param environment the race environment, captured when handshaking the spectator
+     */
+    public void subscribe(Session session, Map<String, String> environment) {
+        this.environment = environment;
+        final AsyncSessionSender sender = new AsyncSessionSender(session, AsyncSessionSender.DEFAULT_CAPACITY, AsyncSessionSender.SlowConsumerPolicy.DROP, false);
+        // the snapshot is sent before the sender is added, so it precedes any race message
+        sender.send("Welcome to the Threadianopolis race hub, next race starts every " + RACE_INTERVAL_SECONDS + " seconds after the previous one.<br/>");
+        if (racing) {
+            sender.send("A race is in progress, its results will follow.<br/>");
+        }
+        sender.send(standingsFrame);
+        spectators.put(session, sender);
+    }
+
+    /**
+     * Unsubscribes a spectator.
+     * @param session the spectator's session
+     */
+    public void unsubscribe(Session session) {
+        spectators.remove(session);
+    }
+
+    /**
+     * Retrieves the number of subscribed spectators.
+     * @return
+     */
+    public int getSpectatorsCount() {
+        return spectators.size();
+    }
+
+    /**
+     * Runs a race, if there is at least one spectator.
+     */
+    private void runRace() {
+        if (spectators.isEmpty() || environment == null) {
+            return;
+        }
+        racing = true;
+        try {
+            new Race(List.of(racer1, racer2, racer3, racer4), environment, new WebSocketRaceBroadcaster(spectators.values()), championship).run();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            racing = false;
+            standingsFrame = WebSocketRaceBroadcaster.toHtml(championship.getEntryList());
+        }
+    }
+}
@@ -16,6 +16,8 @@
  */
 package org.jboss.as.quickstarts.threadracing;
 
+import org.jboss.as.quickstarts.threadracing.stage.RaceStage;
+import org.jboss.as.quickstarts.threadracing.stage.RaceStagePlan;
 import org.jboss.as.quickstarts.threadracing.stage.concurrency.EEConcurrencyRaceStage;
 import org.jboss.as.quickstarts.threadracing.stage.batch.BatchRaceStage;
 import org.jboss.as.quickstarts.threadracing.stage.jaxrs.JAXRSRaceStage;
@@ -23,14 +25,20 @@ import org.jboss.as.quickstarts.threadracing.stage.jms.JMSRaceStage;
 import org.jboss.as.quickstarts.threadracing.stage.json.JSONRaceStage;
 
 import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ContextService;
 import jakarta.enterprise.concurrent.ManagedThreadFactory;
 import jakarta.inject.Inject;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * A racer, a CDI bean injected with an instance of each race stage, which are also CDI beans.
  *
  * The race stages are run sequentially in a managed thread, provided by the container's EE Concurrency 1.0 {@link jakarta.enterprise.concurrent.ManagedThreadFactory} default instance, also injected, but through @Resource.
+ * Alternatively the race stages may run in a virtual thread, with the invocation context captured by the container's {@link jakarta.enterprise.concurrent.ContextService} default instance.
+ *
+ * In the {@link StageMode#PIT_CREW} mode the race stages which do not depend on each other run concurrently, in new managed threads, or in virtual threads if the racer's engine is a virtual thread.
  *
  * The race's {@link org.jboss.as.quickstarts.threadracing.Race.Registration} is used to control the racer's start and finish/abort.
  *
@@ -45,6 +53,12 @@ public class Racer {
     @Resource
     private ManagedThreadFactory managedThreadFactory;
 
+    /**
+     * JNDI injection of the default context service instance, used to propagate the invocation context to racer's virtual threads.
+     */
+    @Resource
+    private ContextService contextService;
+
     /**
      * cdi injection of the Batch 1.0 race stage
      */
@@ -80,6 +94,11 @@ public class Racer {
      */
     private Race.Registration registration;
 
+    /**
+     * the factory of the racer's virtual threads, null if the racer's engine is a managed thread
+     */
+    private ThreadFactory virtualThreadFactory;
+
     /**
      * the racer's name
      */
@@ -120,7 +139,25 @@ public class Racer {
      * Starts the racer's engine a.k.a. as thread. The default {@link jakarta.enterprise.concurrent.ManagedThreadFactory} instance, provided by EE Concurrency 1.0, is used to create the racer's thread.
      */
     public void startEngine() {
-        final Runnable raceTask = new Runnable() {
+        this.virtualThreadFactory = null;
+        managedThreadFactory.newThread(newRaceTask()).start();
+    }
+
+    /**
+     * Starts the racer's engine as a virtual thread. The race task is contextualized by the default {@link jakarta.enterprise.concurrent.ContextService} instance, so that the race stages run with the same invocation context a managed thread would have.
+     * @param virtualThreadFactory the factory of virtual threads
+     */
+    public void startVirtualEngine(ThreadFactory virtualThreadFactory) {
+        this.virtualThreadFactory = virtualThreadFactory;
+        virtualThreadFactory.newThread(contextService.contextualRunnable(newRaceTask())).start();
+    }
+
+    /**
+     * Creates the task run by the racer's engine.
+     * @return
+     */
+    private Runnable newRaceTask() {
+        return new Runnable() {
             @Override
             public void run() {
                 try {
@@ -135,7 +172,6 @@ public class Racer {
                 }
             }
         };
-        managedThreadFactory.newThread(raceTask).start();
     }
 
     /**
@@ -143,15 +179,49 @@ public class Racer {
      * @throws Exception
      */
     private void runRaceStages() throws Exception {
-        batchRaceStage.run(registration);
-        registration.broadcast("completed the Batch stage.");
-        eeConcurrencyRaceStage.run(registration);
-        registration.broadcast("completed the EE Concurrency stage.");
-        jaxrsRaceStageRen.run(registration);
-        registration.broadcast("completed the Jakarta REST stage.");
-        jmsRaceStage.run(registration);
-        registration.broadcast("completed the JMS stage.");
-        jsonRaceStageRen.run(registration);
-        registration.broadcast("completed the JSON stage.");
+        final RaceStagePlan plan = newRaceStagePlan();
+        if (registration.getStageMode() == StageMode.PIT_CREW) {
+            plan.runConcurrently(getPitCrewExecutor(), this::runRaceStage);
+        } else {
+            plan.runSequentially(this::runRaceStage);
+        }
+    }
+
+    /**
+     * Creates the plan of race stages. The pit stop, i.e. the Jakarta REST stage, is done after the Batch and EE Concurrency stages, all other stages are independent.
+     * @return
+     */
+    private RaceStagePlan newRaceStagePlan() {
+        return new RaceStagePlan()
+                .add("Batch", batchRaceStage)
+                .add("EE Concurrency", eeConcurrencyRaceStage)
+                .add("Jakarta REST", jaxrsRaceStageRen, "Batch", "EE Concurrency")
+                .add("JMS", jmsRaceStage)
+                .add("JSON", jsonRaceStageRen);
+    }
+
+    /**
+     * Retrieves the executor where race stages run concurrently, in the pit crew mode. If the racer's engine is a virtual thread then each stage runs in a new (contextualized) virtual thread, otherwise in a new managed thread.
+     * Stages never run in the managed executor service, since some stages submit tasks to it, or to services which use it, and block on their results, which could starve the service's pool, or deadlock, with enough concurrent racers.
+     * @return
+     */
+    private Executor getPitCrewExecutor() {
+        final ThreadFactory threadFactory = virtualThreadFactory;
+        if (threadFactory == null) {
+            return task -> managedThreadFactory.newThread(task).start();
+        }
+        return task -> threadFactory.newThread(contextService.contextualRunnable(task)).start();
+    }
+
+    /**
+     * Runs a race stage, and reports its completion, and latency, to the race's registration.
+     * @param stageName
+     * @param raceStage
+     * @throws Exception
+     */
+    private void runRaceStage(String stageName, RaceStage raceStage) throws Exception {
+        final long start = System.nanoTime();
+        raceStage.run(registration);
+        registration.stageCompleted(stageName, System.nanoTime() - start);
     }
 }
@@ -0,0 +1,43 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+/**
+ * A racer which fills a race grid after the legends, named after its grid number, so that rookies keep their championship standings entry across races.
+ *
+ * @author Eduardo Martins
+ */
+public class Rookie extends Racer {
+
+    /**
+     * the rookie's grid number
+     */
+    private int gridNumber;
+
+    /**
+     * Sets the rookie's grid number, which defines its name.
+     * @param gridNumber
+     */
+    public void setGridNumber(int gridNumber) {
+        this.gridNumber = gridNumber;
+    }
+
+    @Override
+    public String getName() {
+        return "Rookie #" + gridNumber;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+/**
+ * How each racer runs the race stages.
+ *
+ * @author Eduardo Martins
+ */
+public enum StageMode {
+
+    /**
+     * the race stages are run one after the other, in the racer's thread
+     */
+    SEQUENTIAL,
+
+    /**
+     * the "pit crew" mode, where race stages which do not depend on each other run concurrently, with the racer's thread awaiting for all to complete
+     */
+    PIT_CREW;
+
+    /**
+     * Retrieves the stage mode with the specified name, ignoring case.
+     * @param name the stage mode name, may be null
+     * @return the stage mode with the specified name, or {@link #SEQUENTIAL} if name is null
+     * @throws IllegalArgumentException if there is no stage mode with the specified name
+     */
+    public static StageMode of(String name) {
+        return name == null ? SEQUENTIAL : valueOf(name.trim().toUpperCase());
+    }
+}
@@ -20,8 +20,9 @@ import org.jboss.as.quickstarts.threadracing.legends.JimmieThronson;
 import org.jboss.as.quickstarts.threadracing.legends.MichaelThrumacher;
 import org.jboss.as.quickstarts.threadracing.legends.SebastienThroeb;
 import org.jboss.as.quickstarts.threadracing.legends.ValentinoThrossi;
-import org.jboss.as.quickstarts.threadracing.results.RaceResults;
+import org.jboss.as.quickstarts.threadracing.results.Championship;
 
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import jakarta.websocket.HandshakeResponse;
 import jakarta.websocket.OnOpen;
@@ -29,15 +30,20 @@ import jakarta.websocket.Session;
 import jakarta.websocket.server.HandshakeRequest;
 import jakarta.websocket.server.ServerEndpointConfig;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The app's entry point, a Web Socket {@link jakarta.websocket.server.ServerEndpoint}, which runs a race for each client connection established.
  *
  * The server endpoint will update the client of the race progress and results, through text messages, and will close the session once the race ends.
  *
+ * By default the 4 legends race on managed threads, but the client may request a race with any number of racers, through the "racers" request parameter, and/or racers running on virtual threads, through the "engine=virtual" request parameter, and/or racers running independent stages concurrently, through the "stages=pit_crew" request parameter. Racers beyond the legends are {@link Rookie}s.
+ * The "slowConsumer" request parameter selects the session sender's {@link AsyncSessionSender.SlowConsumerPolicy}, by default race progress messages are dropped if the client can't keep up.
+ *
  * @author Eduardo Martins
  */
 @jakarta.websocket.server.ServerEndpoint(value = WebSocketRace.PATH, configurator = WebSocketRace.ServerEndpointConfigurator.class)
@@ -45,6 +51,26 @@ public class WebSocketRace {
 
     public static final String PATH = "/race";
 
+    /**
+     * the request parameter with the number of racers
+     */
+    public static final String RACERS_PARAM = "racers";
+
+    /**
+     * the request parameter with the engine mode
+     */
+    public static final String ENGINE_PARAM = "engine";
+
+    /**
+     * the request parameter with the stage mode
+     */
+    public static final String STAGES_PARAM = "stages";
+
+    /**
+     * the request parameter with the broadcaster's slow consumer policy
+     */
+    public static final String SLOW_CONSUMER_PARAM = "slowConsumer";
+
     /**
      * CDI injection of racer #1
      */
@@ -70,10 +96,16 @@ public class WebSocketRace {
     private ValentinoThrossi racer4;
 
     /**
-     * CDI injection of all race results
+     * CDI injection of the championship standings
+     */
+    @Inject
+    private Championship championship;
+
+    /**
+     * CDI provider of rookies, used to fill the race grid after the legends
      */
     @Inject
-    private RaceResults raceResults;
+    private Instance<Rookie> rookies;
 
     /**
      * Session opened handler, creates and starts a race.
@@ -82,11 +114,36 @@ public class WebSocketRace {
     @OnOpen
     @SuppressWarnings("unchecked")
     public void onOpen(Session session) {
+        final List<Rookie> raceRookies = new ArrayList<>();
+        final String slowConsumer = getParameter(session, SLOW_CONSUMER_PARAM);
+        final AsyncSessionSender sender = new AsyncSessionSender(session, AsyncSessionSender.DEFAULT_CAPACITY,
+                slowConsumer == null ? AsyncSessionSender.SlowConsumerPolicy.DROP_PROGRESS : AsyncSessionSender.SlowConsumerPolicy.valueOf(slowConsumer.trim().toUpperCase()), true);
         try {
-            new Race(racer1, racer2, racer3, racer4, (Map<String, String>) session.getUserProperties().get(ServerEndpointConfigurator.ENV_USER_PROP), new WebSocketRaceBroadcaster(session), raceResults).run();
+            final int racersCount = getIntParameter(session, RACERS_PARAM, 4);
+            final EngineMode engineMode = EngineMode.of(getParameter(session, ENGINE_PARAM));
+            final StageMode stageMode = StageMode.of(getParameter(session, STAGES_PARAM));
+            // the legends always race, the remaining grid is filled with rookies
+            final List<Racer> racers = new ArrayList<>(List.of(racer1, racer2, racer3, racer4).subList(0, Math.min(4, racersCount)));
+            for (int gridNumber = racers.size() + 1; gridNumber <= racersCount; gridNumber++) {
+                final Rookie rookie = rookies.get();
+                rookie.setGridNumber(gridNumber);
+                raceRookies.add(rookie);
+                racers.add(rookie);
+            }
+            new Race(racers, engineMode, stageMode, (Map<String, String>) session.getUserProperties().get(ServerEndpointConfigurator.ENV_USER_PROP), new WebSocketRaceBroadcaster(List.of(sender)), championship).run();
         } catch (Exception e) {
             e.printStackTrace();
         } finally {
+            // rookies are dependent beans, destroy them once the race is over
+            for (Rookie rookie : raceRookies) {
+                rookies.destroy(rookie);
+            }
+            try {
+                // messages are sent asynchronously, let the client receive them all before closing
+                sender.awaitFlushed(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
             try {
                 session.close();
             } catch (IOException ignore) {
@@ -94,6 +151,36 @@ public class WebSocketRace {
         }
     }
 
+    /**
+     * Retrieves the first value of the specified session request parameter.
+     * @param session
+     * @param name
+     * @return the parameter value, null if not present
+     */
+    private static String getParameter(Session session, String name) {
+        final List<String> values = session.getRequestParameterMap().get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Retrieves the specified session request parameter as a positive int.
+     * @param session
+     * @param name
+     * @param defaultValue the value to return if the parameter is not present
+     * @return
+     */
+    private static int getIntParameter(Session session, String name, int defaultValue) {
+        final String value = getParameter(session, name);
+        if (value == null) {
+            return defaultValue;
+        }
+        final int result = Integer.parseInt(value.trim());
+        if (result < 1) {
+            throw new IllegalArgumentException(name + " must be greater than 0");
+        }
+        return result;
+    }
+
     /**
      * This configurator will capture the environment properties, when handshaking a client.
      */
@@ -119,8 +206,10 @@ public class WebSocketRace {
                 environment.put(EnvironmentProperties.SERVER_NAME, request.getHeaders().get("x-forwarded-host").get(0));
                 environment.put(EnvironmentProperties.SERVER_PORT, request.getHeaders().get("x-forwarded-port").get(0));
             }
-            final String relativeRequestUri = request.getRequestURI().toString();
-            final String rootPath = relativeRequestUri.equals(PATH) ? "" : relativeRequestUri.substring(0, (relativeRequestUri.length() - PATH.length()));
+            // the configurator is shared by the race endpoints, so the root path is computed from the URI path and the endpoint's path
+            final String relativeRequestUri = request.getRequestURI().getPath();
+            final String endpointPath = sec.getPath();
+            final String rootPath = relativeRequestUri.equals(endpointPath) ? "" : relativeRequestUri.substring(0, (relativeRequestUri.length() - endpointPath.length()));
             environment.put(EnvironmentProperties.ROOT_PATH, rootPath);
         }
     }
@@ -20,43 +20,60 @@ import org.jboss.as.quickstarts.threadracing.results.ChampionshipStandings;
 import org.jboss.as.quickstarts.threadracing.results.RaceResult;
 
 import jakarta.websocket.Session;
-import java.io.IOException;
 import java.util.List;
 
 /**
- * A {@link org.jboss.as.quickstarts.threadracing.RaceBroadcaster} that sends html/text messages through a Web Socket {@link jakarta.websocket.Session}.
+ * A {@link org.jboss.as.quickstarts.threadracing.RaceBroadcaster} that sends html/text messages through Web Socket {@link jakarta.websocket.Session}s.
+ *
+ * Messages are never sent by the threads broadcasting them, such as racers, instead each message is built once and handed to the {@link AsyncSessionSender} of each session, which sends it asynchronously.
  *
  * @author Eduardo Martins
  */
 public class WebSocketRaceBroadcaster implements RaceBroadcaster {
 
     /**
-     * the web socket's session where messages are sent.
+     * the senders of the web socket's sessions where messages are sent, which may change during the race.
      */
-    private final Session session;
+    private final Iterable<AsyncSessionSender> senders;
 
     /**
      * Creates a new web socket broadcaster
      * @param session the session where race progress messages will be sent.
      */
     public WebSocketRaceBroadcaster(Session session) {
-        this.session = session;
+        this(List.of(new AsyncSessionSender(session)));
     }
 
     /**
-     * Sends a message to the web socket client.
+     * Creates a new web socket broadcaster
+     * @param senders the senders of the sessions where race progress messages will be sent, iterated for each message.
+     */
+    public WebSocketRaceBroadcaster(Iterable<AsyncSessionSender> senders) {
+        this.senders = senders;
+    }
+
+    /**
+     * Sends a message to the web socket clients.
      * @param message
      */
     private void sendToClient(String message) {
-        try {
-            session.getBasicRemote().sendText(message);
-        } catch (IOException e) {
-            e.printStackTrace();
+        for (AsyncSessionSender sender : senders) {
+            sender.send(message);
+        }
+    }
+
+    /**
+     * Sends a race progress message to the web socket clients.
+     * @param message
+     */
+    private void sendProgressToClient(String message) {
+        for (AsyncSessionSender sender : senders) {
+            sender.sendProgress(message);
         }
     }
 
     /**
-     * Pauses the broadcast for the specified amount of milliseconds.
+     * Pauses the broadcast for the specified amount of milliseconds. Only the thread running the race is paused, the racers never call this method.
      * @param millis
      */
     private void pause(long millis) {
@@ -99,7 +116,7 @@ public class WebSocketRaceBroadcaster implements RaceBroadcaster {
 
     @Override
     public void raceProgress(String msg) {
-        sendToClient(msg + "<br/>");
+        sendProgressToClient(msg + "<br/>");
     }
 
     @Override
@@ -115,6 +132,20 @@ public class WebSocketRaceBroadcaster implements RaceBroadcaster {
 
     @Override
     public void raceResult(RaceResult result) {
+        sendToClient(toHtml(result));
+    }
+
+    @Override
+    public void championshipStandings(List<ChampionshipStandings.Entry> entries) {
+        sendToClient(toHtml(entries));
+    }
+
+    /**
+     * Builds the html of a race result.
+     * @param result
+     * @return
+     */
+    static String toHtml(RaceResult result) {
         StringBuilder sb = new StringBuilder();
         sb.append("<h2>Official Race Results</h2>");
         sb.append("<ol>");
@@ -122,11 +153,15 @@ public class WebSocketRaceBroadcaster implements RaceBroadcaster {
             sb.append("<li>" + racer + "</li>");
         }
         sb.append("</ol>");
-        sendToClient(sb.toString());
+        return sb.toString();
     }
 
-    @Override
-    public void championshipStandings(List<ChampionshipStandings.Entry> entries) {
+    /**
+     * Builds the html of the championship standings.
+     * @param entries
+     * @return
+     */
+    static String toHtml(List<ChampionshipStandings.Entry> entries) {
         StringBuilder sb = new StringBuilder();
         sb.append("<h2>Championship Standings</h2>");
         sb.append("<ol>");
@@ -134,6 +169,6 @@ public class WebSocketRaceBroadcaster implements RaceBroadcaster {
             sb.append("<li>" + entry.getName() + ", " + entry.getPoints() + " points</li>");
         }
         sb.append("</ol>");
-        sendToClient(sb.toString());
+        return sb.toString();
     }
 }
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing;
+
+import jakarta.inject.Inject;
+import jakarta.websocket.OnClose;
+import jakarta.websocket.OnError;
+import jakarta.websocket.OnOpen;
+import jakarta.websocket.Session;
+import java.util.Map;
+
+/**
+ * A Web Socket {@link jakarta.websocket.server.ServerEndpoint}, which subscribes each client connection as a spectator of the {@link RaceHub}'s races.
+ *
+ * Unlike {@link WebSocketRace}, the session is kept open, and a single race is broadcast to all spectators.
+ *
+ * @author Eduardo Martins
+ */
+@jakarta.websocket.server.ServerEndpoint(value = WebSocketRaceHub.PATH, configurator = WebSocketRace.ServerEndpointConfigurator.class)
+public class WebSocketRaceHub {
+
+    public static final String PATH = "/race-hub";
+
+    @Inject
+    private RaceHub raceHub;
+
+    /**
+     * Session opened handler, subscribes the client to the race hub.
+     * @param session
+     */
+    @OnOpen
+    @SuppressWarnings("unchecked")
+    public void onOpen(Session session) {
+        raceHub.subscribe(session, (Map<String, String>) session.getUserProperties().get(WebSocketRace.ServerEndpointConfigurator.ENV_USER_PROP));
+    }
+
+    /**
+     * Session closed handler, unsubscribes the client from the race hub.
+     * @param session
+     */
+    @OnClose
+    public void onClose(Session session) {
+        raceHub.unsubscribe(session);
+    }
+
+    /**
+     * Session error handler, unsubscribes the client from the race hub.
+     * @param session
+     * @param throwable
+     */
+    @OnError
+    public void onError(Session session, Throwable throwable) {
+        raceHub.unsubscribe(session);
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import jakarta.ejb.EJBException;
+import jakarta.ejb.Lock;
+import jakarta.ejb.LockType;
+import jakarta.ejb.Singleton;
+import jakarta.ejb.Startup;
+import jakarta.ejb.TransactionManagement;
+import jakarta.ejb.TransactionManagementType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Status;
+import jakarta.transaction.SystemException;
+import jakarta.transaction.UserTransaction;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A singleton EJB which stores the race results, and maintains the championship standings, both persisted through JPA, as {@link RacerStanding} entities, and cached in memory, as {@link ChampionshipStandings}.
+ *
+ * Adding a race result only updates the standings of the race's racers, so the cost of processing a race does not grow with the number of races in the championship history.
+ * The standings may be rebuilt from all race results, see {@link #rebuild()}.
+ *
+ * The singleton manages its transactions, so that each update is committed while the container's write lock is held, thus concurrent updates never read uncommitted standings, nor insert the same racer's standing twice.
+ * A race result and the standings updated with it are stored in a single transaction, and the in memory standings are only updated once it commits, thus these never diverge.
+ *
+ * The singleton's container managed concurrency allows concurrent reads of the standings, while updates are exclusive. Readers retrieve an immutable snapshot of the standings' entry list.
+ *
+ * @author Eduardo Martins
+ */
+@Singleton
+@Startup
+@Lock(LockType.READ)
+@TransactionManagement(TransactionManagementType.BEAN)
+public class Championship {
+
+    private static final Logger LOGGER = Logger.getLogger(Championship.class.getName());
+
+    /**
+     * the injected JPA entity manager
+     */
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * the race results, which are stored with the standings, and used to rebuild these
+     */
+    @Inject
+    private RaceResults raceResults;
+
+    /**
+     * the transaction of each update, committed before the write lock is released
+     */
+    @Resource
+    private UserTransaction userTransaction;
+
+    /**
+     * the in memory standings, only updated while holding the container's write lock
+     */
+    private ChampionshipStandings standings;
+
+    /**
+     * the last entry list of the in memory standings, which is what readers retrieve
+     */
+    private volatile List<ChampionshipStandings.Entry> entryList;
+
+    /**
+     * Loads the persisted standings into memory. If there are no persisted standings, e.g. on first deploy after race results were stored without standings, these are rebuilt from race results.
+     */
+    @PostConstruct
+    public void load() {
+        final List<RacerStanding> racerStandings = em.createNamedQuery("RacerStanding.findAll", RacerStanding.class).getResultList();
+        if (racerStandings.isEmpty()) {
+            rebuild();
+        } else {
+            final ChampionshipStandings loaded = new ChampionshipStandings();
+            for (RacerStanding racerStanding : racerStandings) {
+                loaded.addPoints(racerStanding.getRacerName(), racerStanding.getPoints());
+            }
+            replaceStandings(loaded);
+        }
+    }
+
+    /**
+     * Stores a race result, and adds it to the standings, in a single transaction. Only the race's racers standings are updated, these are loaded with a single query, and the in memory standings are updated only if the transaction commits.
+     * @param raceResult
+     */
+    @Lock(LockType.WRITE)
+    public void add(RaceResult raceResult) {
+        final List<String> sortedRacers = raceResult.getSortedRacers();
+        final int racersCount = sortedRacers.size();
+        final List<String> racerNames = new ArrayList<>(racersCount);
+        for (String racerName : sortedRacers) {
+            if (racerName != null) {
+                racerNames.add(racerName);
+            }
+        }
+        begin();
+        try {
+            raceResults.add(raceResult);
+            if (!racerNames.isEmpty()) {
+                final Map<String, RacerStanding> racerStandings = new HashMap<>();
+                for (RacerStanding racerStanding : em.createNamedQuery("RacerStanding.findByRacerNames", RacerStanding.class).setParameter("racerNames", racerNames).getResultList()) {
+                    racerStandings.put(racerStanding.getRacerName(), racerStanding);
+                }
+                for (int i = 0; i < racersCount; i++) {
+                    final String racerName = sortedRacers.get(i);
+                    if (racerName == null) {
+                        continue;
+                    }
+                    final int points = ChampionshipStandings.getPoints(i + 1, racersCount);
+                    final RacerStanding racerStanding = racerStandings.get(racerName);
+                    if (racerStanding == null) {
+                        em.persist(new RacerStanding(racerName, points));
+                    } else {
+                        racerStanding.setPoints(racerStanding.getPoints() + points);
+                    }
+                }
+            }
+            commit();
+        } catch (RuntimeException e) {
+            rollback();
+            throw e;
+        }
+        standings.add(raceResult);
+        entryList = standings.getEntryList();
+    }
+
+    /**
+     * Replaces the in memory standings, and builds the sorted entry list, readers then just retrieve it.
+     * @param newStandings
+     */
+    private void replaceStandings(ChampionshipStandings newStandings) {
+        standings = newStandings;
+        entryList = newStandings.getEntryList();
+    }
+
+    /**
+     * Rebuilds the standings, persisted and in memory, from all race results.
+     */
+    @Lock(LockType.WRITE)
+    public void rebuild() {
+        begin();
+        final ChampionshipStandings rebuilt;
+        try {
+            rebuilt = new ChampionshipStandings().addAll(raceResults);
+            em.createNamedQuery("RacerStanding.deleteAll").executeUpdate();
+            for (ChampionshipStandings.Entry entry : rebuilt.getEntryList()) {
+                em.persist(new RacerStanding(entry.getName(), entry.getPoints()));
+            }
+            commit();
+        } catch (RuntimeException e) {
+            rollback();
+            throw e;
+        }
+        replaceStandings(rebuilt);
+    }
+
+    private void begin() {
+        try {
+            userTransaction.begin();
+        } catch (Exception e) {
+            throw new EJBException(e);
+        }
+    }
+
+    private void commit() {
+        try {
+            userTransaction.commit();
+        } catch (Exception e) {
+            throw new EJBException(e);
+        }
+    }
+
+    /**
+     * Rolls back the current transaction, if it was not completed already, e.g. by a failed commit.
+     */
+    private void rollback() {
+        try {
+            if (userTransaction.getStatus() != Status.STATUS_NO_TRANSACTION) {
+                userTransaction.rollback();
+            }
+        } catch (SystemException | IllegalStateException e) {
+            LOGGER.log(Level.WARNING, "Failed to roll back the championship transaction", e);
+        }
+    }
+
+    /**
+     * Retrieves the championship standings list, already sorted, see {@link ChampionshipStandings#getEntryList()}.
+     * @return
+     */
+    public List<ChampionshipStandings.Entry> getEntryList() {
+        return entryList;
+    }
+}
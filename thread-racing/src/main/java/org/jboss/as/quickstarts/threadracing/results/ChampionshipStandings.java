@@ -21,26 +21,41 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 
 /**
  * The championship standings provides a sorted list of (racer's name, points) pairs, representing the how racers stand in the championship, the set of all races run.
  *
  * The first entry is the current championship leader.
  *
- * The Race position to championship points mapping is:
- * 1st place    -> 4 points
- * 2nd place    -> 3 points
- * 3rd place    -> 2 points
- * 4th place    -> 1 points
+ * The Race position to championship points mapping depends on the number of racers N in the race:
+ * 1st place    -> N points
+ * 2nd place    -> N-1 points
+ * ...
+ * last place   -> 1 point
+ *
+ * For the classic 4 racers race that is 4, 3, 2 and 1 points.
+ *
+ * The standings are maintained incrementally, i.e. adding a race result only updates the entries of the race's racers, and the entries are kept sorted, thus there is no need to sort when retrieving the entry list.
  *
  * @author Eduardo Martins
  */
 public class ChampionshipStandings {
 
     /**
-     * the mapping racer's name --> racer's sum of points obtained in all added race results.
+     * the mapping racer's name --> racer's entry, with the sum of points obtained in all added race results.
+     */
+    private final Map<String, Entry> racerEntries = new HashMap<>();
+
+    /**
+     * the racer's entries, sorted by points and name
      */
-    private final Map<String, Integer> racerPointsTotals = new HashMap<>();
+    private final TreeSet<Entry> sortedEntries = new TreeSet<>();
+
+    /**
+     * the last built entry list, null if the standings changed since then
+     */
+    private volatile List<Entry> entryList;
 
     /**
      * Adds all race results.
@@ -60,51 +75,58 @@ public class ChampionshipStandings {
      * @return
      */
     public ChampionshipStandings add(RaceResult raceResult) {
-        processRacerResult(raceResult.getRacer1Name(), raceResult.getRacer1Position(), racerPointsTotals);
-        processRacerResult(raceResult.getRacer2Name(), raceResult.getRacer2Position(), racerPointsTotals);
-        processRacerResult(raceResult.getRacer3Name(), raceResult.getRacer3Position(), racerPointsTotals);
-        processRacerResult(raceResult.getRacer4Name(), raceResult.getRacer4Position(), racerPointsTotals);
+        final List<String> sortedRacers = raceResult.getSortedRacers();
+        final int racersCount = sortedRacers.size();
+        for (int i = 0; i < racersCount; i++) {
+            final String racerName = sortedRacers.get(i);
+            if (racerName != null) {
+                addPoints(racerName, getPoints(i + 1, racersCount));
+            }
+        }
         return this;
     }
 
     /**
-     * Updates the racer's totals with a race's position.
+     * Adds points to a racer's total.
      * @param racerName
-     * @param racerPosition
-     * @param racerPointsTotals
+     * @param racerPoints
+     * @return
      */
-    private void processRacerResult(String racerName, int racerPosition, Map<String, Integer> racerPointsTotals) {
-        final int racerPoints;
-        if (racerPosition == 1) {
-            racerPoints = 4;
-        } else if (racerPosition == 2) {
-            racerPoints = 3;
-        } else if (racerPosition == 3) {
-            racerPoints = 2;
-        } else {
-            racerPoints = 1;
-        }
-        final Integer racerPointsTotal = racerPointsTotals.get(racerName);
-        if (racerPointsTotal == null) {
-            racerPointsTotals.put(racerName, racerPoints);
+    public ChampionshipStandings addPoints(String racerName, int racerPoints) {
+        final Entry previousEntry = racerEntries.get(racerName);
+        final Entry entry;
+        if (previousEntry == null) {
+            entry = new Entry(racerName, racerPoints);
         } else {
-            racerPointsTotals.put(racerName, racerPoints + racerPointsTotal);
+            sortedEntries.remove(previousEntry);
+            entry = new Entry(racerName, previousEntry.getPoints() + racerPoints);
         }
+        racerEntries.put(racerName, entry);
+        sortedEntries.add(entry);
+        entryList = null;
+        return this;
+    }
+
+    /**
+     * Computes the championship points for a race position.
+     * @param racerPosition
+     * @param racersCount the number of racers in the race
+     * @return
+     */
+    public static int getPoints(int racerPosition, int racersCount) {
+        return Math.max(1, racersCount - racerPosition + 1);
     }
 
     /**
-     * Builds the championship standings list. The list is ordered by racer's points, being the first entry the racer currently with more points. Racers with same points will be sorted by name.
+     * Retrieves the championship standings list. The list is ordered by racer's points, being the first entry the racer currently with more points. Racers with same points will be sorted by name.
+     * The returned list is unmodifiable, and reused until the standings change.
      * @return
      */
     public List<Entry> getEntryList() {
-        final List<Entry> entries = new ArrayList<>();
-        for (Map.Entry<String, Integer> racerPointsTotal : racerPointsTotals.entrySet()) {
-            final String racer = racerPointsTotal.getKey();
-            final Integer points = racerPointsTotal.getValue();
-            entries.add(new Entry(racer, points));
+        if (entryList == null) {
+            entryList = Collections.unmodifiableList(new ArrayList<>(sortedEntries));
         }
-        Collections.sort(entries);
-        return entries;
+        return entryList;
     }
 
     /**
@@ -113,14 +135,14 @@ public class ChampionshipStandings {
     public static class Entry implements Comparable<Entry> {
 
         private final String name;
-        private final Integer points;
+        private final int points;
 
         /**
          *
          * @param name
          * @param points
          */
-        private Entry(String name, Integer points) {
+        private Entry(String name, int points) {
             this.name = name;
             this.points = points;
         }
@@ -160,7 +182,7 @@ public class ChampionshipStandings {
 
         @Override
         public int compareTo(Entry o) {
-            int result = -this.points.compareTo(o.points);
+            int result = -Integer.compare(this.points, o.points);
             if (result == 0) {
                 result = this.name.compareTo(o.name);
             }
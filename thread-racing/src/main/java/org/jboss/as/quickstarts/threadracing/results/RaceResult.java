@@ -18,14 +18,20 @@ package org.jboss.as.quickstarts.threadracing.results;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.NamedQueries;
 import jakarta.persistence.NamedQuery;
+import jakarta.persistence.OrderColumn;
 import jakarta.persistence.Table;
 
 import org.jboss.as.quickstarts.threadracing.Race;
@@ -33,12 +39,15 @@ import org.jboss.as.quickstarts.threadracing.Race;
 /**
  * A race result, a JPA entity.
  *
+ * The racer's names are stored in a collection table, ordered by race position, thus a result may have any number of racers.
+ *
  * @author Eduardo Martins
  */
 @Entity
 @Table(name = "THREAD_RACE_RESULTS")
 @NamedQueries({
-        @NamedQuery(name = "RaceResult.findAll", query = "SELECT e FROM RaceResult e")
+        @NamedQuery(name = "RaceResult.findAll", query = "SELECT e FROM RaceResult e"),
+        @NamedQuery(name = "RaceResult.findLatestId", query = "SELECT MAX(e.id) FROM RaceResult e")
 })
 public class RaceResult implements Serializable {
 
@@ -51,29 +60,36 @@ public class RaceResult implements Serializable {
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private int id;
 
-    @Column
-    private String racer1Name;
-
-    @Column
-    private int racer1Position;
-
-    @Column
-    private String racer2Name;
-
-    @Column
-    private int racer2Position;
-
-    @Column
-    private String racer3Name;
+    /**
+     * the racer's names, the index of each name is the racer's position minus 1
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "THREAD_RACE_RESULT_RACERS", joinColumns = @JoinColumn(name = "RESULT_ID"))
+    @OrderColumn(name = "POSITION_INDEX")
+    @Column(name = "RACER_NAME")
+    private List<String> racers = new ArrayList<>();
 
-    @Column
-    private int racer3Position;
+    /**
+     * the race stage latencies, aggregated for all racers and for each racer
+     */
+    @ElementCollection
+    @CollectionTable(name = "THREAD_RACE_RESULT_STAGE_LATENCIES", joinColumns = @JoinColumn(name = "RESULT_ID"))
+    @OrderColumn(name = "LATENCY_INDEX")
+    private List<StageLatency> stageLatencies = new ArrayList<>();
 
-    @Column
-    private String racer4Name;
+    /**
+     * Mandatory JPA entity's no args constructor.
+     */
+    public RaceResult() {
+    }
 
-    @Column
-    private int racer4Position;
+    /**
+     * Creates a result for a race with the specified number of racers.
+     * @param racersCount
+     */
+    public RaceResult(int racersCount) {
+        this.racers = new ArrayList<>(Collections.nCopies(racersCount, (String) null));
+    }
 
     public int getId() {
         return id;
@@ -83,97 +99,45 @@ public class RaceResult implements Serializable {
         this.id = id;
     }
 
-    public String getRacer1Name() {
-        return racer1Name;
-    }
-
-    public void setRacer1Name(String racer1Name) {
-        this.racer1Name = racer1Name;
+    public List<String> getRacers() {
+        return racers;
     }
 
-    public int getRacer1Position() {
-        return racer1Position;
+    public void setRacers(List<String> racers) {
+        this.racers = racers;
     }
 
-    public void setRacer1Position(int racer1Position) {
-        this.racer1Position = racer1Position;
+    public List<StageLatency> getStageLatencies() {
+        return stageLatencies;
     }
 
-    public String getRacer2Name() {
-        return racer2Name;
+    public void setStageLatencies(List<StageLatency> stageLatencies) {
+        this.stageLatencies = stageLatencies;
     }
 
-    public void setRacer2Name(String racer2Name) {
-        this.racer2Name = racer2Name;
-    }
-
-    public int getRacer2Position() {
-        return racer2Position;
-    }
-
-    public void setRacer2Position(int racer2Position) {
-        this.racer2Position = racer2Position;
-    }
-
-    public String getRacer3Name() {
-        return racer3Name;
-    }
-
-    public void setRacer3Name(String racer3Name) {
-        this.racer3Name = racer3Name;
-    }
-
-    public int getRacer3Position() {
-        return racer3Position;
-    }
-
-    public void setRacer3Position(int racer3Position) {
-        this.racer3Position = racer3Position;
-    }
-
-    public String getRacer4Name() {
-        return racer4Name;
-    }
-
-    public void setRacer4Name(String racer4Name) {
-        this.racer4Name = racer4Name;
-    }
-
-    public int getRacer4Position() {
-        return racer4Position;
-    }
-
-    public void setRacer4Position(int racer4Position) {
-        this.racer4Position = racer4Position;
+    /**
+     * Retrieves the number of racers in the race.
+     *
+     * @return
+     */
+    public int getRacersCount() {
+        return racers.size();
     }
 
     /**
-     * Sets the result for the provided registration.
+     * Sets the result for the provided registration. Racers finish concurrently, thus the method is synchronized.
      *
      * @param registration
      * @param position
      */
-    public void setPosition(Race.Registration registration, int position) {
-        switch (registration.getNumber()) {
-            case 1:
-                setRacer1Name(registration.getRacer().getName());
-                setRacer1Position(position);
-                break;
-            case 2:
-                setRacer2Name(registration.getRacer().getName());
-                setRacer2Position(position);
-                break;
-            case 3:
-                setRacer3Name(registration.getRacer().getName());
-                setRacer3Position(position);
-                break;
-            case 4:
-                setRacer4Name(registration.getRacer().getName());
-                setRacer4Position(position);
-                break;
-            default:
-                throw new IllegalStateException("registration number must be 1-4");
+    public synchronized void setPosition(Race.Registration registration, int position) {
+        if (position < 1) {
+            throw new IllegalStateException("race position must be greater than 0");
         }
+        while (racers.size() < position) {
+            racers.add(null);
+        }
+        racers.set(position - 1, registration.getRacer().getName());
     }
 
     /**
@@ -181,13 +145,8 @@ public class RaceResult implements Serializable {
      *
      * @return
      */
-    public List<String> getSortedRacers() {
-        List<String> result = new ArrayList<>();
-        result.add(getRacerWithPosition(1));
-        result.add(getRacerWithPosition(2));
-        result.add(getRacerWithPosition(3));
-        result.add(getRacerWithPosition(4));
-        return result;
+    public synchronized List<String> getSortedRacers() {
+        return new ArrayList<>(racers);
     }
 
     /**
@@ -196,17 +155,7 @@ public class RaceResult implements Serializable {
      * @param i
      * @return
      */
-    public String getRacerWithPosition(int i) {
-        if (racer1Position == i) {
-            return racer1Name;
-        } else if (racer2Position == i) {
-            return racer2Name;
-        } else if (racer3Position == i) {
-            return racer3Name;
-        } else if (racer4Position == i) {
-            return racer4Name;
-        } else {
-            return null;
-        }
+    public synchronized String getRacerWithPosition(int i) {
+        return i > 0 && i <= racers.size() ? racers.get(i - 1) : null;
     }
 }
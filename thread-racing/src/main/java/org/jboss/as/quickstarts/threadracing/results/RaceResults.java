@@ -19,6 +19,7 @@ package org.jboss.as.quickstarts.threadracing.results;
 import jakarta.ejb.Stateless;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -51,4 +52,23 @@ public class RaceResults {
     public List<RaceResult> findAll() {
         return em.createNamedQuery("RaceResult.findAll", RaceResult.class).getResultList();
     }
+
+    /**
+     * Finds the id of the latest race result.
+     * @return the latest race result id, null if there are no race results
+     */
+    public Integer findLatestId() {
+        return em.createNamedQuery("RaceResult.findLatestId", Integer.class).getSingleResult();
+    }
+
+    /**
+     * Finds the stage latencies of a race result.
+     * @param id the race result id
+     * @return the race result's stage latencies, null if there is no such race result
+     */
+    public List<StageLatency> findStageLatencies(int id) {
+        final RaceResult raceResult = em.find(RaceResult.class, id);
+        // the stage latencies are lazy loaded, copy them while the persistence context is active
+        return raceResult == null ? null : new ArrayList<>(raceResult.getStageLatencies());
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import java.util.List;
+
+/**
+ * A REST service which exposes the race stage latencies, stored with each race result, as JSON.
+ *
+ * Each stage latency has the stage name, the racer's name, absent for the latencies aggregating all racers, the number of samples, and the 50th, 90th and 99th percentiles and max latency, in microseconds.
+ *
+ * @author Eduardo Martins
+ */
+@Path("/")
+@Produces(MediaType.APPLICATION_JSON)
+public class RaceResultsService {
+
+    @Inject
+    private RaceResults raceResults;
+
+    /**
+     * Retrieves the stage latencies of the latest race.
+     * @return
+     */
+    @GET
+    @Path("latest/latencies")
+    public Response getLatestStageLatencies() {
+        final Integer latestId = raceResults.findLatestId();
+        return latestId == null ? Response.status(Response.Status.NOT_FOUND).build() : getStageLatencies(latestId);
+    }
+
+    /**
+     * Retrieves the stage latencies of the race with the specified result id.
+     * @param id
+     * @return
+     */
+    @GET
+    @Path("{id}/latencies")
+    public Response getStageLatencies(@PathParam("id") int id) {
+        final List<StageLatency> stageLatencies = raceResults.findStageLatencies(id);
+        if (stageLatencies == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        final JsonArrayBuilder array = Json.createArrayBuilder();
+        for (StageLatency stageLatency : stageLatencies) {
+            final JsonObjectBuilder object = Json.createObjectBuilder()
+                    .add("stage", stageLatency.getStage());
+            if (stageLatency.getRacerName() != null) {
+                object.add("racer", stageLatency.getRacerName());
+            }
+            array.add(object
+                    .add("count", stageLatency.getSampleCount())
+                    .add("p50", stageLatency.getP50())
+                    .add("p90", stageLatency.getP90())
+                    .add("p99", stageLatency.getP99())
+                    .add("max", stageLatency.getMax()));
+        }
+        return Response.ok(Json.createObjectBuilder()
+                .add("race", id)
+                .add("unit", "microseconds")
+                .add("latencies", array)
+                .build()).build();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import java.io.Serializable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+
+/**
+ * A racer's championship standing, i.e. the sum of points the racer obtained in all races, a JPA entity.
+ *
+ * @author Eduardo Martins
+ */
+@Entity
+@Table(name = "THREAD_RACE_STANDINGS")
+@NamedQueries({
+        @NamedQuery(name = "RacerStanding.findAll", query = "SELECT e FROM RacerStanding e"),
+        @NamedQuery(name = "RacerStanding.findByRacerNames", query = "SELECT e FROM RacerStanding e WHERE e.racerName IN :racerNames"),
+        @NamedQuery(name = "RacerStanding.deleteAll", query = "DELETE FROM RacerStanding e")
+})
+public class RacerStanding implements Serializable {
+
+    /**
+     *
+     */
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String racerName;
+
+    @Column
+    private int points;
+
+    /**
+     * Mandatory JPA entity's no args constructor.
+     */
+    public RacerStanding() {
+    }
+
+    /**
+     *
+     * @param racerName
+     * @param points
+     */
+    public RacerStanding(String racerName, int points) {
+        this.racerName = racerName;
+        this.points = points;
+    }
+
+    public String getRacerName() {
+        return racerName;
+    }
+
+    public void setRacerName(String racerName) {
+        this.racerName = racerName;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public void setPoints(int points) {
+        this.points = points;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.results;
+
+import java.io.Serializable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import org.jboss.as.quickstarts.threadracing.stage.LatencyHistogram;
+
+/**
+ * The latency percentiles of a race stage, a JPA embeddable stored with the {@link RaceResult}.
+ *
+ * A stage latency either aggregates all racers, in such case the racer's name is null, or concerns a single racer. All latencies are in microseconds.
+ *
+ * @author Eduardo Martins
+ */
+@Embeddable
+public class StageLatency implements Serializable {
+
+    /**
+     *
+     */
+    private static final long serialVersionUID = 1L;
+
+    @Column
+    private String stage;
+
+    @Column
+    private String racerName;
+
+    @Column
+    private long sampleCount;
+
+    @Column
+    private long p50;
+
+    @Column
+    private long p90;
+
+    @Column
+    private long p99;
+
+    @Column
+    private long max;
+
+    /**
+     * Mandatory JPA embeddable's no args constructor.
+     */
+    public StageLatency() {
+    }
+
+    /**
+     * Creates a stage latency from the specified histogram.
+     * @param stage the stage's name
+     * @param racerName the racer's name, null if the histogram aggregates all racers
+     * @param histogram
+     */
+    public StageLatency(String stage, String racerName, LatencyHistogram histogram) {
+        this.stage = stage;
+        this.racerName = racerName;
+        this.sampleCount = histogram.getCount();
+        this.p50 = histogram.getValueAtPercentile(50);
+        this.p90 = histogram.getValueAtPercentile(90);
+        this.p99 = histogram.getValueAtPercentile(99);
+        this.max = histogram.getMax();
+    }
+
+    /**
+     * Creates a single racer's stage latency.
+     * @param stage the stage's name
+     * @param racerName the racer's name
+     * @param latency the racer's stage latency, in microseconds
+     */
+    public StageLatency(String stage, String racerName, long latency) {
+        this.stage = stage;
+        this.racerName = racerName;
+        this.sampleCount = 1;
+        this.p50 = latency;
+        this.p90 = latency;
+        this.p99 = latency;
+        this.max = latency;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public String getRacerName() {
+        return racerName;
+    }
+
+    public void setRacerName(String racerName) {
+        this.racerName = racerName;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(long sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public void setP50(long p50) {
+        this.p50 = p50;
+    }
+
+    public long getP90() {
+        return p90;
+    }
+
+    public void setP90(long p90) {
+        this.p90 = p90;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public void setP99(long p99) {
+        this.p99 = p99;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public void setMax(long max) {
+        this.max = max;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A low overhead, thread safe, latency histogram, with HDR style log-linear buckets.
+ *
+ * Latencies are recorded in microseconds. Values up to 31 are recorded exactly, and higher values are recorded in buckets with 4 bits of precision, i.e. 16 linear sub buckets for each power of 2, which bounds the relative error of percentiles to about 6%.
+ * Recording a value is just a few bit operations and an atomic increment, with no allocations and no locks.
+ *
+ * @author Eduardo Martins
+ */
+public class LatencyHistogram {
+
+    /**
+     * the number of precision bits of each bucket
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * the number of sub buckets for each power of 2
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * values lower than this are recorded exactly
+     */
+    private static final int EXACT_VALUES = SUB_BUCKET_COUNT << 1;
+
+    /**
+     * the exponent of the lowest power of 2 which is not recorded exactly
+     */
+    private static final int FIRST_EXPONENT = SUB_BUCKET_BITS + 1;
+
+    /**
+     * the bucket counts
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(EXACT_VALUES + (63 - FIRST_EXPONENT) * SUB_BUCKET_COUNT);
+
+    /**
+     * the total number of recorded values
+     */
+    private final AtomicLong totalCount = new AtomicLong();
+
+    /**
+     * the max recorded value
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * the sum of recorded values
+     */
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * Records a latency.
+     * @param duration
+     * @param unit
+     */
+    public void record(long duration, TimeUnit unit) {
+        final long value = Math.max(0, unit.toMicros(duration));
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Computes the index of the bucket where a value is recorded.
+     * @param value
+     * @return
+     */
+    private static int bucketIndex(long value) {
+        if (value < EXACT_VALUES) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return EXACT_VALUES + (exponent - FIRST_EXPONENT) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Computes the highest value recorded in the bucket with the specified index.
+     * @param index
+     * @return
+     */
+    private static long bucketHighestValue(int index) {
+        if (index < EXACT_VALUES) {
+            return index;
+        }
+        final int exponent = (index - EXACT_VALUES) / SUB_BUCKET_COUNT + FIRST_EXPONENT;
+        final int subBucket = (index - EXACT_VALUES) % SUB_BUCKET_COUNT;
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (subBucket + SUB_BUCKET_COUNT + 1) << shift) - 1;
+    }
+
+    /**
+     * Retrieves the number of recorded values.
+     * @return
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Retrieves the max recorded value, in microseconds.
+     * @return
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Retrieves the mean of recorded values, in microseconds.
+     * @return
+     */
+    public long getMean() {
+        final long count = totalCount.get();
+        return count == 0 ? 0 : sum.get() / count;
+    }
+
+    /**
+     * Retrieves the value at the specified percentile, in microseconds, i.e. the highest value of the bucket where the percentile falls, capped by the max recorded value.
+     * @param percentile a value between 0 and 100
+     * @return
+     */
+    public long getValueAtPercentile(double percentile) {
+        final long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        final long countAtPercentile = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * count));
+        long accumulated = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            accumulated += counts.get(i);
+            if (accumulated >= countAtPercentile) {
+                return Math.min(bucketHighestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+}
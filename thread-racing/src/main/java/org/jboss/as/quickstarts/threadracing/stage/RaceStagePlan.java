@@ -0,0 +1,202 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A plan of race stages, each declaring the stages it depends on.
+ *
+ * The plan may be run sequentially, in declaration order, or concurrently, where each stage starts as soon as the stages it depends on complete. When run concurrently, if a stage fails the stages not yet started are skipped and the running ones are cancelled, i.e. interrupted, and the plan only returns once all stages are done, i.e. once every cancelled stage which was already running actually returns.
+ *
+ * @author Eduardo Martins
+ */
+public class RaceStagePlan {
+
+    /**
+     * Runs a single race stage of the plan.
+     */
+    @FunctionalInterface
+    public interface StageRunner {
+
+        /**
+         * Runs a race stage.
+         * @param stageName
+         * @param stage
+         * @throws Exception
+         */
+        void run(String stageName, RaceStage stage) throws Exception;
+    }
+
+    /**
+     * the run states of a stage's task
+     */
+    private static final int NOT_STARTED = 0;
+    private static final int RUNNING = 1;
+    private static final int NEVER_RUN = 2;
+
+    /**
+     * the planned stages, keyed and ordered by stage name
+     */
+    private final Map<String, PlannedStage> stages = new LinkedHashMap<>();
+
+    /**
+     * Adds a stage to the plan.
+     * @param stageName the stage's name, unique in the plan
+     * @param stage the stage
+     * @param dependencies the names of the stages which must complete before the stage runs, all previously added to the plan
+     * @return
+     */
+    public RaceStagePlan add(String stageName, RaceStage stage, String... dependencies) {
+        if (stages.containsKey(stageName)) {
+            throw new IllegalArgumentException("stage " + stageName + " already in the plan");
+        }
+        for (String dependency : dependencies) {
+            if (!stages.containsKey(dependency)) {
+                throw new IllegalArgumentException("stage " + stageName + " depends on stage " + dependency + ", which is not in the plan");
+            }
+        }
+        stages.put(stageName, new PlannedStage(stageName, stage, Arrays.asList(dependencies)));
+        return this;
+    }
+
+    /**
+     * Runs the plan's stages sequentially, in the order these were added, which satisfies all dependencies.
+     * @param runner
+     * @throws Exception
+     */
+    public void runSequentially(StageRunner runner) throws Exception {
+        for (PlannedStage plannedStage : stages.values()) {
+            runner.run(plannedStage.name, plannedStage.stage);
+        }
+    }
+
+    /**
+     * Runs the plan's stages concurrently, each one as soon as its dependencies complete.
+     * @param executor the executor where stages run
+     * @param runner
+     * @throws Exception the failure of the first stage which failed
+     */
+    public void runConcurrently(Executor executor, StageRunner runner) throws Exception {
+        final Map<String, CompletableFuture<Void>> completions = new HashMap<>();
+        // completed once each stage actually stopped running, or will never run, which for a cancelled stage happens after its completion
+        final List<CompletableFuture<Void>> terminations = new ArrayList<>();
+        final List<FutureTask<Void>> tasks = new CopyOnWriteArrayList<>();
+        final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        for (PlannedStage plannedStage : stages.values()) {
+            final CompletableFuture<Void> completion = new CompletableFuture<>();
+            final CompletableFuture<Void> termination = new CompletableFuture<>();
+            terminations.add(termination);
+            final List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+            for (String dependency : plannedStage.dependencies) {
+                dependencies.add(completions.get(dependency));
+            }
+            CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0])).whenComplete((ignore, dependencyFailure) -> {
+                if (dependencyFailure != null) {
+                    // skip the stage, with the failure of the stage it depends on
+                    completion.completeExceptionally(dependencyFailure instanceof CompletionException && dependencyFailure.getCause() != null ? dependencyFailure.getCause() : dependencyFailure);
+                    termination.complete(null);
+                    return;
+                }
+                // NOT_STARTED -> RUNNING, or NOT_STARTED -> NEVER_RUN if cancelled first
+                final AtomicInteger runState = new AtomicInteger(NOT_STARTED);
+                final FutureTask<Void> task = new FutureTask<Void>(() -> {
+                    if (!runState.compareAndSet(NOT_STARTED, RUNNING)) {
+                        return null;
+                    }
+                    try {
+                        runner.run(plannedStage.name, plannedStage.stage);
+                    } finally {
+                        termination.complete(null);
+                    }
+                    return null;
+                }) {
+                    @Override
+                    protected void done() {
+                        if (isCancelled() && runState.compareAndSet(NOT_STARTED, NEVER_RUN)) {
+                            termination.complete(null);
+                        }
+                        try {
+                            get();
+                            completion.complete(null);
+                        } catch (ExecutionException e) {
+                            completion.completeExceptionally(e.getCause());
+                        } catch (CancellationException | InterruptedException e) {
+                            completion.completeExceptionally(e);
+                        }
+                    }
+                };
+                // add the task before checking for failures, the failure handler cancels all added tasks after setting the failure
+                tasks.add(task);
+                if (firstFailure.get() != null) {
+                    task.cancel(false);
+                } else {
+                    executor.execute(task);
+                }
+            });
+            completion.whenComplete((ignore, failure) -> {
+                if (failure != null && firstFailure.compareAndSet(null, failure)) {
+                    for (FutureTask<Void> task : tasks) {
+                        task.cancel(true);
+                    }
+                }
+            });
+            completions.put(plannedStage.name, completion);
+        }
+        try {
+            CompletableFuture.allOf(completions.values().toArray(new CompletableFuture[0])).get();
+        } catch (ExecutionException e) {
+            // the completion of a cancelled stage does not mean it stopped running, wait for that
+            CompletableFuture.allOf(terminations.toArray(new CompletableFuture[0])).get();
+            final Throwable failure = firstFailure.get() != null ? firstFailure.get() : e.getCause();
+            if (failure instanceof Exception) {
+                throw (Exception) failure;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A stage in the plan.
+     */
+    private static class PlannedStage {
+
+        private final String name;
+        private final RaceStage stage;
+        private final List<String> dependencies;
+
+        private PlannedStage(String name, RaceStage stage, List<String> dependencies) {
+            this.name = name;
+            this.stage = stage;
+            this.dependencies = dependencies;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.batch;
+
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.JobExecution;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.Date;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of Batch job execution completions, keyed by execution id.
+ *
+ * The Batch API provides no Future wrt a started job execution, so instead of polling the job repository for the execution status, the {@link BatchRaceStageJobListener} notifies this registry when a job execution ends, completing the related {@link CompletionStage}.
+ * The completion may be awaited before or after the job execution ends, and the registry entry is removed once both the job execution ended and its completion was retrieved.
+ *
+ * @author Eduardo Martins
+ */
+@ApplicationScoped
+public class BatchJobCompletions {
+
+    /**
+     * the pending completions, keyed by job execution id
+     */
+    private final Map<Long, CompletableFuture<JobExecution>> completions = new ConcurrentHashMap<>();
+
+    /**
+     * the ids of the job executions whose completion was discarded, and which did not end yet
+     */
+    private final Set<Long> discarded = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Retrieves the completion of the job execution with the specified id, which completes with the job execution once it reaches a terminal batch status: COMPLETED, FAILED, STOPPED or ABANDONED.
+     * @param executionId
+     * @return
+     */
+    public CompletionStage<JobExecution> completion(long executionId) {
+        final CompletableFuture<JobExecution> completion = completions.computeIfAbsent(executionId, id -> new CompletableFuture<>());
+        // once retrieved and completed there is no further use for the entry
+        completion.whenComplete((jobExecution, throwable) -> completions.remove(executionId));
+        return completion;
+    }
+
+    /**
+     * Discards the completion of the job execution with the specified id, e.g. when no longer awaited after a timeout, thus the registry does not keep an entry for a job execution which may never end.
+     * The id is only remembered, to ignore the job execution end, if the completion is still pending, otherwise the job execution already ended.
+     * @param executionId
+     */
+    public void discard(long executionId) {
+        completions.compute(executionId, (id, completion) -> {
+            // no completion means it was completed and removed already
+            if (completion != null && !completion.isDone()) {
+                discarded.add(id);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Notifies the registry that a job execution ended.
+     * @param jobExecution the job execution
+     * @param batchStatus the terminal batch status, which the job repository may still not reflect when job listeners are invoked
+     */
+    void jobEnded(JobExecution jobExecution, BatchStatus batchStatus) {
+        // atomic wrt discard, the completion is completed outside, since its actions remove the entry
+        final CompletableFuture<JobExecution> completion = completions.compute(jobExecution.getExecutionId(),
+                (id, pending) -> discarded.remove(id) ? null : pending != null ? pending : new CompletableFuture<>());
+        if (completion != null) {
+            completion.complete(new EndedJobExecution(jobExecution, batchStatus));
+        }
+    }
+
+    /**
+     * A view of an ended job execution, with the terminal batch status.
+     */
+    private static class EndedJobExecution implements JobExecution {
+
+        private final JobExecution jobExecution;
+        private final BatchStatus batchStatus;
+
+        private EndedJobExecution(JobExecution jobExecution, BatchStatus batchStatus) {
+            this.jobExecution = jobExecution;
+            this.batchStatus = batchStatus;
+        }
+
+        @Override
+        public long getExecutionId() {
+            return jobExecution.getExecutionId();
+        }
+
+        @Override
+        public String getJobName() {
+            return jobExecution.getJobName();
+        }
+
+        @Override
+        public BatchStatus getBatchStatus() {
+            return batchStatus;
+        }
+
+        @Override
+        public Date getStartTime() {
+            return jobExecution.getStartTime();
+        }
+
+        @Override
+        public Date getEndTime() {
+            return jobExecution.getEndTime();
+        }
+
+        @Override
+        public String getExitStatus() {
+            return jobExecution.getExitStatus();
+        }
+
+        @Override
+        public Date getCreateTime() {
+            return jobExecution.getCreateTime();
+        }
+
+        @Override
+        public Date getLastUpdatedTime() {
+            return jobExecution.getLastUpdatedTime();
+        }
+
+        @Override
+        public Properties getJobParameters() {
+            return jobExecution.getJobParameters();
+        }
+    }
+}
@@ -19,11 +19,15 @@ package org.jboss.as.quickstarts.threadracing.stage.batch;
 import org.jboss.as.quickstarts.threadracing.Race;
 import org.jboss.as.quickstarts.threadracing.stage.RaceStage;
 
+import jakarta.batch.operations.JobExecutionNotRunningException;
 import jakarta.batch.operations.JobOperator;
 import jakarta.batch.runtime.BatchRuntime;
 import jakarta.batch.runtime.BatchStatus;
 import jakarta.batch.runtime.JobExecution;
+import jakarta.inject.Inject;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * The Batch 1.0 race stage, which starts a job execution and waits for it to complete.
@@ -31,22 +35,40 @@ import java.util.Properties;
  * Apps deploy Batch jobs by packaging the related XML descriptors in META-INF/batch-jobs. The name of these Batch jobs, which is needed to start their execution, is the name of the XML file, without the ".xml".
  * This app deploys a Batch job named "race", so the XML descriptor file is named "race.xml" and put in "src/main/resources/META-INF/batch-jobs" directory of the project.
  *
+ * The job start does not provide a Future object wrt the job execution, so the job includes a {@link BatchRaceStageJobListener}, which notifies the {@link BatchJobCompletions} registry when the job execution ends, and the stage awaits on that, instead of polling the job execution status.
  *
  * @author Eduardo Martins
  */
 public class BatchRaceStage implements RaceStage {
 
+    /**
+     * the registry of job execution completions
+     */
+    @Inject
+    private BatchJobCompletions jobCompletions;
+
     @Override
     public void run(Race.Registration registration) throws Exception {
         // retrieve the job operator
         JobOperator jobOperator = BatchRuntime.getJobOperator();
         // start the race.xml job
-        Long executionId = jobOperator.start("race", new Properties());
-        // would be nice if the job start would provide a Future object wrt the job execution, perhaps something for next spec revision
-        // just check every 1ms if the job status is completed
-        JobExecution jobExecution = jobOperator.getJobExecution(executionId);
-        while (jobExecution.getBatchStatus() != BatchStatus.COMPLETED) {
-            Thread.sleep(1);
+        long executionId = jobOperator.start("race", new Properties());
+        // await the job execution end, which may be COMPLETED, or not
+        JobExecution jobExecution;
+        try {
+            jobExecution = jobCompletions.completion(executionId).toCompletableFuture().get(90, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            // stop the job execution, and stop tracking its completion, it may never end
+            try {
+                jobOperator.stop(executionId);
+                jobCompletions.discard(executionId);
+            } catch (JobExecutionNotRunningException ignored) {
+                // ended meanwhile, its completion is removed once completed
+            }
+            throw e;
+        }
+        if (jobExecution.getBatchStatus() != BatchStatus.COMPLETED) {
+            throw new IllegalStateException("race job execution " + executionId + " ended with status " + jobExecution.getBatchStatus());
         }
     }
 }
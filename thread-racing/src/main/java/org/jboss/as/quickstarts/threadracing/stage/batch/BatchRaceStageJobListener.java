@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.batch;
+
+import jakarta.batch.api.listener.AbstractJobListener;
+import jakarta.batch.runtime.BatchRuntime;
+import jakarta.batch.runtime.BatchStatus;
+import jakarta.batch.runtime.context.JobContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+/**
+ * The race batch job listener, which notifies the {@link BatchJobCompletions} registry when a job execution ends.
+ *
+ * @author Eduardo Martins
+ */
+@Named
+public class BatchRaceStageJobListener extends AbstractJobListener {
+
+    @Inject
+    private JobContext jobContext;
+
+    @Inject
+    private BatchJobCompletions jobCompletions;
+
+    @Override
+    public void afterJob() {
+        jobCompletions.jobEnded(BatchRuntime.getJobOperator().getJobExecution(jobContext.getExecutionId()), toTerminalStatus(jobContext.getBatchStatus()));
+    }
+
+    /**
+     * Converts the batch status seen by job listeners into the terminal batch status. A job execution which is still STARTED when the job listener is invoked has completed, and one which is STOPPING has stopped.
+     * @param batchStatus
+     * @return
+     */
+    private static BatchStatus toTerminalStatus(BatchStatus batchStatus) {
+        switch (batchStatus) {
+            case STARTING:
+            case STARTED:
+                return BatchStatus.COMPLETED;
+            case STOPPING:
+                return BatchStatus.STOPPED;
+            default:
+                return batchStatus;
+        }
+    }
+}
@@ -18,9 +18,11 @@ package org.jboss.as.quickstarts.threadracing.stage.jaxrs;
 
 import jakarta.ws.rs.ApplicationPath;
 import jakarta.ws.rs.core.Application;
+import java.util.Set;
 
 /**
  * A class extending {@link jakarta.ws.rs.core.Application} is the portable way to define Jakarta REST REST Services, and the {@link jakarta.ws.rs.ApplicationPath} defines the common path of such services.
+ * The app deploys more than one Jakarta REST application, so each one lists its resource classes, otherwise all would be available in every application.
  * @author Eduardo Martins
  */
 @ApplicationPath(BoxApplication.PATH)
@@ -31,4 +33,9 @@ public class BoxApplication extends Application {
      */
     public static final String PATH = "box";
 
+    @Override
+    public Set<Class<?>> getClasses() {
+        return Set.of(BoxService.class);
+    }
+
 }
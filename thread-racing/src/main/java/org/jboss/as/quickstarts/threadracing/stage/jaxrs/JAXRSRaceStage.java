@@ -20,25 +20,26 @@ import org.jboss.as.quickstarts.threadracing.EnvironmentProperties;
 import org.jboss.as.quickstarts.threadracing.Race;
 import org.jboss.as.quickstarts.threadracing.stage.RaceStage;
 
-import jakarta.ws.rs.client.Client;
-import jakarta.ws.rs.client.WebTarget;
-import jakarta.ws.rs.core.Response;
+import jakarta.inject.Inject;
 
-import java.security.SecureRandom;
 import java.util.Map;
-import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
-import org.jboss.resteasy.client.jaxrs.engines.PassthroughTrustManager;
-
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The Jakarta REST race stage implements the race's boxes, which a racer uses to do a pit stop.
  *
+ * The pit stop is done through the shared {@link PitStopClient}, after warming up a pooled connection, thus the reported pit stop time is the request latency, without the client and connection setup, which is reported as the warm up time.
+ *
  * @author Eduardo Martins
  */
 public class JAXRSRaceStage implements RaceStage {
 
+    /**
+     * the shared pit stop client
+     */
+    @Inject
+    private PitStopClient pitStopClient;
+
     @Override
     public void run(Race.Registration registration) throws Exception {
         // build the REST service uri from race's environment
@@ -53,30 +54,12 @@ public class JAXRSRaceStage implements RaceStage {
                 .append(BoxApplication.PATH)
                 .append("/pitStop")
                 .toString();
-        // create and setup the new standard Jakarta REST client (and its web target)
-        // please note that it uses a custom SSLContext that trusts any certificate, this should not be used on production
-        final SSLContext sslContext = SSLContext.getInstance("SSL");
-        sslContext.init(
-                null,
-                new TrustManager[] { new PassthroughTrustManager() },
-                new SecureRandom());
-        final Client client = ResteasyClientBuilder.newBuilder()
-                .sslContext(sslContext)
-                .build();
-        try {
-            final WebTarget target = client.target(pitStopURI);
-            // get current time
-            long now = System.currentTimeMillis();
-            // box box box, i.e. send a request to the Box rest service, with the racers name provided as param 'racer'
-            final Response response = target.path("{racer}").resolveTemplate("racer", registration.getRacer().getName()).request().get();
-            if (response.getStatus() != 200) {
-                throw new IllegalStateException("PIT STOP failure trouble " + response.getStatus());
-            } else {
-                // broadcast a msg indicating the duration of the pit stop operation
-                registration.broadcast("PIT STOP in " + (System.currentTimeMillis() - now) + "ms");
-            }
-        } finally {
-            client.close();
-        }
+        final String racer = registration.getRacer().getName();
+        // warm up a connection, a new one includes the TCP connect and TLS handshake
+        final long warmUpNanos = pitStopClient.warmUp(pitStopURI, racer).toCompletableFuture().get(PitStopClient.TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        // box box box, i.e. send a request to the Box rest service, with the racers name provided as param 'racer'
+        final long latencyNanos = pitStopClient.pitStop(pitStopURI, racer).toCompletableFuture().get(PitStopClient.TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        // broadcast a msg indicating the duration of the pit stop request, and of the connection warm up
+        registration.broadcast("PIT STOP in " + TimeUnit.NANOSECONDS.toMillis(latencyNanos) + "ms (box connection warm up " + TimeUnit.NANOSECONDS.toMillis(warmUpNanos) + "ms)");
     }
 }
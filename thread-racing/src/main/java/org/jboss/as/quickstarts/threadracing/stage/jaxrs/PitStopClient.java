@@ -0,0 +1,149 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.jaxrs;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.core.Response;
+
+import java.security.SecureRandom;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.client.jaxrs.engines.PassthroughTrustManager;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+
+/**
+ * The Jakarta REST client of the race's boxes, shared by all racers.
+ *
+ * Creating a client, and its SSLContext, is expensive, and so is establishing a connection, thus a single client is created, with a pool of keep-alive connections, which racers may use concurrently.
+ * Pit stops are invoked asynchronously, through the {@link jakarta.ws.rs.client.CompletionStageRxInvoker}, with the container's default {@link jakarta.enterprise.concurrent.ManagedExecutorService} instance.
+ * A racer first warms up a connection, with an OPTIONS request, which includes the TCP connect and TLS handshake if no pooled connection is idle, so that the pit stop request then reuses a connection, and its latency excludes the connection setup.
+ *
+ * @author Eduardo Martins
+ */
+@ApplicationScoped
+public class PitStopClient {
+
+    /**
+     * the max number of pooled connections, which is also the max number of concurrent pit stops without waiting for a connection
+     */
+    private static final int CONNECTION_POOL_SIZE = 64;
+
+    /**
+     * the max time a pooled connection is kept alive, in seconds
+     */
+    private static final long CONNECTION_TTL_SECONDS = 60;
+
+    /**
+     * the max time to connect to the boxes, and then to wait for a response, in seconds
+     */
+    static final long TIMEOUT_SECONDS = 10;
+
+    @Resource
+    private ManagedExecutorService executorService;
+
+    /**
+     * the shared client
+     */
+    private Client client;
+
+    /**
+     * Creates the shared client.
+     * @throws Exception
+     */
+    @PostConstruct
+    public void init() throws Exception {
+        // please note that it uses a custom SSLContext that trusts any certificate, this should not be used on production
+        final SSLContext sslContext = SSLContext.getInstance("SSL");
+        sslContext.init(
+                null,
+                new TrustManager[] { new PassthroughTrustManager() },
+                new SecureRandom());
+        client = ((ResteasyClientBuilder) ResteasyClientBuilder.newBuilder())
+                .connectionPoolSize(CONNECTION_POOL_SIZE)
+                .maxPooledPerRoute(CONNECTION_POOL_SIZE)
+                .connectionTTL(CONNECTION_TTL_SECONDS, TimeUnit.SECONDS)
+                .connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .sslContext(sslContext)
+                .executorService(executorService)
+                .build();
+    }
+
+    /**
+     * Closes the shared client, and its pooled connections.
+     */
+    @PreDestroy
+    public void close() {
+        client.close();
+    }
+
+    /**
+     * Warms up a pooled connection to the boxes, asynchronously, with an OPTIONS request, which has no side effects.
+     * @param pitStopURI the Box rest service pit stop uri
+     * @param racer the racer's name
+     * @return the warm up latency, in nanoseconds, which includes the connection setup if a new connection was needed
+     */
+    public CompletionStage<Long> warmUp(String pitStopURI, String racer) {
+        final long start = System.nanoTime();
+        return client.target(pitStopURI)
+                .path("{racer}")
+                .resolveTemplate("racer", racer)
+                .request()
+                .rx()
+                .options()
+                .thenApply(response -> {
+                    // release the connection back to the pool, whatever the response
+                    response.close();
+                    return System.nanoTime() - start;
+                });
+    }
+
+    /**
+     * Does a pit stop, asynchronously.
+     * @param pitStopURI the Box rest service pit stop uri
+     * @param racer the racer's name
+     * @return the pit stop request latency, in nanoseconds
+     */
+    public CompletionStage<Long> pitStop(String pitStopURI, String racer) {
+        final long start = System.nanoTime();
+        return client.target(pitStopURI)
+                .path("{racer}")
+                .resolveTemplate("racer", racer)
+                .request()
+                .rx()
+                .get()
+                .thenApply(response -> {
+                    try {
+                        if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+                            throw new IllegalStateException("PIT STOP failure trouble " + response.getStatus());
+                        }
+                        return System.nanoTime() - start;
+                    } finally {
+                        // release the connection back to the pool
+                        response.close();
+                    }
+                });
+    }
+}
@@ -20,15 +20,16 @@ import org.jboss.as.quickstarts.threadracing.Race;
 import org.jboss.as.quickstarts.threadracing.stage.RaceStage;
 
 import jakarta.annotation.Resource;
-import jakarta.jms.ConnectionFactory;
-import jakarta.jms.JMSConsumer;
-import jakarta.jms.JMSContext;
+import jakarta.inject.Inject;
 import jakarta.jms.Queue;
-import jakarta.jms.TemporaryQueue;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
- * The JMS race stage is a JMS client which sends a request containing a text message, and waits for a response with same text, using the request/response trough a temporary queue pattern.
+ * The JMS race stage is a JMS client which sends a request containing a text message, and waits for a response with same text, using the request/response pattern.
+ *
+ * The request/response is done through the {@link JMSRequestReplyClient}, which matches responses by JMSCorrelationID on a single shared reply queue, instead of creating a temporary queue for each request.
  *
  * @author Eduardo Martins
  */
@@ -39,29 +40,30 @@ public class JMSRaceStage implements RaceStage {
      */
     @Resource(lookup = JMSRaceStageMessageListener.REQUEST_QUEUE)
     private Queue requestQueue;
-    @Resource(lookup = "java:comp/DefaultJMSConnectionFactory")
-    private ConnectionFactory cf;
+
+    /**
+     * the shared request/reply client
+     */
+    @Inject
+    private JMSRequestReplyClient client;
 
     @Override
     public void run(Race.Registration registration) throws Exception {
-        try (JMSContext jmsContext = cf.createContext()) {
-            // create response tmp queue
-            final TemporaryQueue responseQueue = jmsContext.createTemporaryQueue();
-            // send request
-            final String request = UUID.randomUUID().toString();
-            jmsContext.createProducer()
-                    .setJMSReplyTo(responseQueue)
-                    .send(requestQueue, request);
-            // receive response
-            try (JMSConsumer consumer = jmsContext.createConsumer(responseQueue)) {
-                String response = consumer.receiveBody(String.class);
-                if (response == null) {
-                    registration.aborted(new IllegalStateException("Message processing timed out"));
-                } else if (!response.equals(request)) {
-                    registration.aborted(new IllegalStateException("Response content does not match the request. Response: " + response + ", request: " + request));
-                }
+        // send request
+        final String request = UUID.randomUUID().toString();
+        // receive response
+        final String response;
+        try {
+            response = client.request(requestQueue, request).toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                registration.aborted(new IllegalStateException("Message processing timed out"));
+                return;
             }
+            throw e;
+        }
+        if (!response.equals(request)) {
+            registration.aborted(new IllegalStateException("Response content does not match the request. Response: " + response + ", request: " + request));
         }
     }
 }
-
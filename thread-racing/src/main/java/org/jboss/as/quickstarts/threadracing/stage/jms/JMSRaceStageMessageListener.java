@@ -27,7 +27,7 @@ import jakarta.jms.MessageListener;
 import jakarta.jms.TextMessage;
 
 /**
- * The JMS race stage {@link jakarta.jms.MessageListener}, which simply returns back the received message's text.
+ * The JMS race stage {@link jakarta.jms.MessageListener}, which simply returns back the received message's text, with the request's JMSCorrelationID.
  *
  * This class, being a container managed class, creates a JMS destination through annotation {@link jakarta.jms.JMSDestinationDefinition}.
  *
@@ -54,7 +54,9 @@ public class JMSRaceStageMessageListener implements MessageListener {
     public void onMessage(Message message) {
         // just echo the msg
         try {
-            jmsContext.createProducer().send(message.getJMSReplyTo(), ((TextMessage) message).getText());
+            jmsContext.createProducer()
+                    .setJMSCorrelationID(message.getJMSCorrelationID())
+                    .send(message.getJMSReplyTo(), ((TextMessage) message).getText());
         } catch (JMSException e) {
             e.printStackTrace();
         }
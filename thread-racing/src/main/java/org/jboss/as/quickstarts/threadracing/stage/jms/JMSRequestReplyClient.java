@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.quickstarts.threadracing.stage.jms;
+
+import jakarta.annotation.Resource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSContext;
+import jakarta.jms.Queue;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A reusable JMS request/reply client, which multiplexes any number of in-flight requests over a single reply queue.
+ *
+ * Each request is sent with an unique JMSCorrelationID and the shared reply queue as JMSReplyTo, and the request's pending reply is a {@link CompletionStage}, completed by the {@link JMSRaceStageReplyListener} when a reply with the same JMSCorrelationID is received, or completed exceptionally with a {@link java.util.concurrent.TimeoutException} if no reply is received in time.
+ * The reply queue is deployed with the app, thus there is one per server node, and no per request temporary queues are created.
+ *
+ * @author Eduardo Martins
+ */
+@ApplicationScoped
+public class JMSRequestReplyClient {
+
+    /**
+     * the default reply timeout, in seconds
+     */
+    public static final long DEFAULT_TIMEOUT_SECONDS = 30;
+
+    @Resource(lookup = JMSRaceStageReplyListener.REPLY_QUEUE)
+    private Queue replyQueue;
+
+    @Resource(lookup = "java:comp/DefaultJMSConnectionFactory")
+    private ConnectionFactory cf;
+
+    /**
+     * the correlation id prefix, unique for each client instance, so that replies to previous deployments are never matched
+     */
+    private final String correlationIdPrefix = UUID.randomUUID().toString() + '-';
+
+    /**
+     * the correlation id sequence
+     */
+    private final AtomicLong correlationIdSequence = new AtomicLong();
+
+    /**
+     * the pending replies, keyed by correlation id
+     */
+    private final Map<String, CompletableFuture<String>> pendingReplies = new ConcurrentHashMap<>();
+
+    /**
+     * Sends a text request to the specified destination, with the default reply timeout.
+     * @param destination
+     * @param request
+     * @return the pending reply's text
+     */
+    public CompletionStage<String> request(Queue destination, String request) {
+        return request(destination, request, DEFAULT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Sends a text request to the specified destination.
+     * @param destination
+     * @param request
+     * @param timeout the max time to wait for the reply
+     * @param unit the timeout unit
+     * @return the pending reply's text
+     */
+    public CompletionStage<String> request(Queue destination, String request, long timeout, TimeUnit unit) {
+        final String correlationId = correlationIdPrefix + correlationIdSequence.incrementAndGet();
+        final CompletableFuture<String> reply = new CompletableFuture<>();
+        // register the pending reply before sending, the reply may arrive before send returns
+        pendingReplies.put(correlationId, reply);
+        reply.whenComplete((text, throwable) -> pendingReplies.remove(correlationId));
+        try (JMSContext jmsContext = cf.createContext()) {
+            jmsContext.createProducer()
+                    .setJMSCorrelationID(correlationId)
+                    .setJMSReplyTo(replyQueue)
+                    .send(destination, request);
+        } catch (RuntimeException e) {
+            reply.completeExceptionally(e);
+            return reply;
+        }
+        return reply.orTimeout(timeout, unit);
+    }
+
+    /**
+     * Completes the pending reply with the specified correlation id.
+     * @param correlationId
+     * @param text
+     * @return false if there is no such pending reply, e.g. the request timed out
+     */
+    boolean replyReceived(String correlationId, String text) {
+        final CompletableFuture<String> reply = correlationId != null ? pendingReplies.get(correlationId) : null;
+        return reply != null && reply.complete(text);
+    }
+
+    /**
+     * Retrieves the number of requests awaiting a reply.
+     * @return
+     */
+    public int getPendingRepliesCount() {
+        return pendingReplies.size();
+    }
+}
@@ -17,12 +17,10 @@
 package org.jboss.quickstarts.websocket;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 import java.util.logging.Logger;
 
-import jakarta.annotation.PostConstruct;
+import jakarta.websocket.CloseReason;
 import jakarta.websocket.EncodeException;
 import jakarta.websocket.OnClose;
 import jakarta.websocket.OnError;
@@ -49,62 +47,60 @@ public class BidWebSocketEndpoint {
 
     private Logger logger = Logger.getLogger(getClass().getName());
 
-    private static Set<Session> clients = Collections.synchronizedSet(new HashSet<>());
+    // The user property with the id of the item watched by the session
+    private static final String ITEM_ID = "itemId";
 
-    private Runnable intervalNotifier;
-
-    // It starts a Thread that notifies all sessions each second
-    @PostConstruct
-    public void startIntervalNotifier() {
-        logger.info("Starting interval notifier");
-        intervalNotifier = new Runnable() {
-
-            @Override
-            public void run() {
-                try {
-                    while (true) {
-                        Thread.sleep(1000);
-                        notifyAllSessions(BiddingFactory.getBidding());
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
-        };
-        new Thread(intervalNotifier).start();
-    }
-
-    // store the session once that it's opened
+    // store the session once that it's opened, and subscribe it to the item specified by the itemId request
+    // parameter, or the default item, the BiddingBroadcaster notifies the subscribed sessions each second
     @OnOpen
-    public void onOpen(Session session) {
+    public void onOpen(Session session) throws IOException {
         logger.info("New websocket session opened: " + session.getId());
-        clients.add(session);
-
+        List<String> itemIds = session.getRequestParameterMap().get(ITEM_ID);
+        String itemId = itemIds != null && !itemIds.isEmpty() ? itemIds.get(0) : BiddingFactory.DEFAULT_ITEM_ID;
+        if (BiddingFactory.getBidding(itemId) == null) {
+            session.close(new CloseReason(CloseReason.CloseCodes.CANNOT_ACCEPT, "Unknown item " + itemId));
+            return;
+        }
+        session.getUserProperties().put(ITEM_ID, itemId);
+        BiddingBroadcaster.addClient(session);
+        BiddingBroadcaster.subscribe(session, itemId);
     }
 
     // remove the session after it's closed
     @OnClose
     public void onClose(Session session) {
         logger.info("Websoket session closed: " + session.getId());
-        clients.remove(session);
+        BiddingBroadcaster.removeClient(session);
     }
 
     // This method receives a Message that contains a command
     // The Message object is "decoded" by the MessageDecoder class
+    // The command is for the Bidding of the message item, or else of the item watched by the session
     @OnMessage
     public void onMessage(Session session, Message message) throws IOException, EncodeException {
+        String itemId = message.getItemId() != null ? message.getItemId() : (String) session.getUserProperties().get(ITEM_ID);
+        Bidding bidding = BiddingFactory.getBidding(itemId);
+        if (bidding == null) {
+            logger.warning("Ignoring command " + message.getCommand() + " for unknown item " + itemId);
+            return;
+        }
+        if (message.getCommand().equals("subscribe")) {
+            BiddingBroadcaster.subscribe(session, itemId);
+        }
+        if (message.getCommand().equals("unsubscribe")) {
+            BiddingBroadcaster.unsubscribe(session, itemId);
+            return;
+        }
         if (message.getCommand().equals("newBid")) {
-            Bidding bidding = BiddingFactory.getBidding();
             bidding.addBid(new Bid(session.getId(), message.getBidValue()));
         }
         if (message.getCommand().equals("buyItNow")) {
-            Bidding bidding = BiddingFactory.getBidding();
             bidding.buyItNow();
         }
         if (message.getCommand().equals("resetBid")) {
-            BiddingFactory.resetBidding();
+            BiddingFactory.resetBidding(itemId);
         }
-        notifyAllSessions(BiddingFactory.getBidding());
+        BiddingBroadcaster.broadcast(BiddingFactory.getBidding(itemId));
     }
 
     // Exception handling
@@ -112,12 +108,4 @@ public class BidWebSocketEndpoint {
     public void error(Session session, Throwable t) {
         t.printStackTrace();
     }
-
-    // This method sends the same Bidding object to all opened sessions
-    private void notifyAllSessions(Bidding bidding) throws EncodeException, IOException {
-        for (Session s : clients) {
-            s.getBasicRemote().sendObject(bidding);
-        }
-
-    }
 }
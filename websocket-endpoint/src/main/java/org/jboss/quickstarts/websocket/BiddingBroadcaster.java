@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2015, Red Hat, Inc. and/or its affiliates, and individual
+ * contributors by the @authors tag. See the copyright.txt in the
+ * distribution for a full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.quickstarts.websocket;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.websocket.EncodeException;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+
+import org.jboss.quickstarts.websocket.model.Bidding;
+import org.jboss.quickstarts.websocket.model.BiddingFactory;
+
+// This class sends each Bidding to the opened sessions subscribed to its item, each second and after
+// every update. A single ticker is shared by all sessions, it is started when the first session opens
+// and cancelled when the last one closes, and each Bidding is encoded once, not once per session.
+final class BiddingBroadcaster {
+
+    private static final Logger logger = Logger.getLogger(BiddingBroadcaster.class.getName());
+
+    private static final BiddingEncoder encoder = new BiddingEncoder();
+
+    private static final Map<Session, SessionSender> clients = new ConcurrentHashMap<>();
+
+    // the senders of the sessions subscribed to each item, keyed by the item id
+    private static final Map<String, Set<SessionSender>> subscribers = new ConcurrentHashMap<>();
+
+    // guarded by the BiddingBroadcaster class
+    private static ScheduledFuture<?> ticker;
+
+    private BiddingBroadcaster() {
+    }
+
+    static synchronized void addClient(Session session) {
+        clients.put(session, new SessionSender(session));
+        if (ticker == null) {
+            logger.info("Starting interval notifier");
+            ticker = getScheduledExecutorService().scheduleAtFixedRate(BiddingBroadcaster::tick, 1, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    static synchronized void removeClient(Session session) {
+        SessionSender sender = clients.remove(session);
+        if (sender != null) {
+            for (String itemId : sender.itemIds) {
+                unsubscribe(sender, itemId);
+            }
+        }
+        if (clients.isEmpty() && ticker != null) {
+            logger.info("Stopping interval notifier");
+            ticker.cancel(false);
+            ticker = null;
+        }
+    }
+
+    // synchronized, as removeClient, so that a session removed meanwhile is not left subscribed
+    static synchronized void subscribe(Session session, String itemId) {
+        SessionSender sender = clients.get(session);
+        if (sender != null && sender.itemIds.add(itemId)) {
+            subscribers.compute(itemId, (id, senders) -> {
+                if (senders == null) {
+                    senders = ConcurrentHashMap.newKeySet();
+                }
+                senders.add(sender);
+                return senders;
+            });
+        }
+    }
+
+    static synchronized void unsubscribe(Session session, String itemId) {
+        SessionSender sender = clients.get(session);
+        if (sender != null) {
+            unsubscribe(sender, itemId);
+        }
+    }
+
+    private static void unsubscribe(SessionSender sender, String itemId) {
+        sender.itemIds.remove(itemId);
+        // the item is forgotten once it has no subscribers
+        subscribers.computeIfPresent(itemId, (id, senders) -> {
+            senders.remove(sender);
+            return senders.isEmpty() ? null : senders;
+        });
+    }
+
+    // sends the same encoded Bidding to all sessions subscribed to its item
+    static void broadcast(Bidding bidding) throws EncodeException {
+        String itemId = bidding.getItem().getId();
+        Set<SessionSender> senders = subscribers.get(itemId);
+        if (senders == null) {
+            return;
+        }
+        String text = encoder.encode(bidding);
+        for (SessionSender sender : senders) {
+            sender.send(itemId, text);
+        }
+    }
+
+    // only the biddings with subscribers are notified
+    private static void tick() {
+        for (String itemId : subscribers.keySet()) {
+            try {
+                Bidding bidding = BiddingFactory.getBidding(itemId);
+                if (bidding != null) {
+                    broadcast(bidding);
+                }
+            } catch (Exception e) {
+                // an exception would cancel the ticker
+                logger.log(Level.WARNING, "Failed to notify the sessions of item " + itemId, e);
+            }
+        }
+    }
+
+    // the ticker runs in the container's default managed scheduled executor service
+    private static ManagedScheduledExecutorService getScheduledExecutorService() {
+        try {
+            return InitialContext.doLookup("java:comp/DefaultManagedScheduledExecutorService");
+        } catch (NamingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Sends texts through the async remote of a session, one at a time. A text which is
+    // still pending when a newer one of the same item is sent is replaced by it, as each text
+    // has the whole Bidding, thus a slow client only misses the intermediate updates.
+    private static final class SessionSender {
+
+        private final Session session;
+
+        // the ids of the items the session is subscribed to
+        private final Set<String> itemIds = ConcurrentHashMap.newKeySet();
+
+        // the pending text of each item, and the ids of those items, in the order to send them
+        private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+        private final Queue<String> pendingItemIds = new ConcurrentLinkedQueue<>();
+
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        SessionSender(Session session) {
+            this.session = session;
+        }
+
+        void send(String itemId, String text) {
+            if (pending.put(itemId, text) == null) {
+                pendingItemIds.add(itemId);
+            }
+            drain();
+        }
+
+        private void drain() {
+            while (!pendingItemIds.isEmpty() && sending.compareAndSet(false, true)) {
+                String itemId = pendingItemIds.poll();
+                String text = itemId != null ? pending.remove(itemId) : null;
+                if (text == null || !session.isOpen()) {
+                    sending.set(false);
+                    continue;
+                }
+                try {
+                    session.getAsyncRemote().sendText(text, this::onResult);
+                    return;
+                } catch (RuntimeException e) {
+                    // e.g. the session closed meanwhile, the next pending text is tried, so that none is left behind
+                    logger.log(Level.FINE, "Failed to send to session " + session.getId(), e);
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void onResult(SendResult result) {
+            if (!result.isOK()) {
+                logger.log(Level.FINE, "Failed to send to session " + session.getId(), result.getException());
+            }
+            sending.set(false);
+            drain();
+        }
+    }
+}
@@ -45,9 +45,17 @@ public class BiddingEncoder implements Text<Bidding> {
 
     @Override
     public String encode(Bidding bidding) throws EncodeException {
+        // The Bidding is locked, so that its state does not change while encoded
+        synchronized (bidding) {
+            return encodeLocked(bidding);
+        }
+    }
+
+    private String encodeLocked(Bidding bidding) {
         // It uses the JSON-P API to create a JSON representation
         JsonObjectBuilder jsonBuilder = Json.createObjectBuilder()
             .add("item", Json.createObjectBuilder()
+                .add("id", bidding.getItem().getId())
                 .add("buyNowPrice", bidding.getItem().getBuyNowPrice())
                 .add("description", bidding.getItem().getDescription())
                 .add("imagePath", bidding.getItem().getImagePath())
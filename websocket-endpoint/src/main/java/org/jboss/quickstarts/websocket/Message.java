@@ -23,9 +23,17 @@ public class Message {
 
     private Integer bidValue;
 
+    // the id of the item whose Bidding the command is for, or null for the item the client watches
+    private String itemId;
+
     public Message(String command, Integer bidValue) {
+        this(command, bidValue, null);
+    }
+
+    public Message(String command, Integer bidValue, String itemId) {
         this.command = command;
         this.bidValue = bidValue;
+        this.itemId = itemId;
     }
 
     public String getCommand() {
@@ -36,4 +44,8 @@ public class Message {
         return bidValue;
     }
 
+    public String getItemId() {
+        return itemId;
+    }
+
 }
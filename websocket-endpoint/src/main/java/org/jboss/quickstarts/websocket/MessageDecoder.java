@@ -44,7 +44,8 @@ public class MessageDecoder implements Decoder.Text<Message> {
         if (jsonObject.containsKey("bidValue")) {
             bidValue = jsonObject.getInt("bidValue");
         }
-        return new Message(command, bidValue);
+        String itemId = jsonObject.getString("itemId", null);
+        return new Message(command, bidValue, itemId);
     }
 
     @Override
@@ -16,14 +16,15 @@
  */
 package org.jboss.quickstarts.websocket.model;
 
+import java.util.ArrayDeque;
 import java.util.Calendar;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Deque;
 import java.util.GregorianCalendar;
-import java.util.Set;
-import java.util.TreeSet;
 
 //This class represents the Bidding of an item
+//Its state is guarded by its own monitor, so that bids on different items never wait for each other
 public class Bidding {
 
     static final long ONE_MINUTE_IN_MILLIS = 60000;// millisecs
@@ -34,25 +35,22 @@ public class Bidding {
 
     private Date dueDate = null;
 
+    private final Integer startPrice;
+
     private Integer currentPrice = null;
 
     private Integer secondsLeft = null;
 
-    // The bids uses a comparator to order it based on the its date.
-    private Set<Bid> bids = new TreeSet<Bid>(new Comparator<Bid>() {
-
-        @Override
-        public int compare(Bid o1, Bid o2) {
-            return o2.getDateTime().compareTo(o1.getDateTime());
-        }
-    });
+    // The bids ordered from the newest to the oldest, as these are added
+    private final Deque<Bid> bids = new ArrayDeque<>();
 
     public Bidding(Item item, Integer currentPrice) {
         this.item = item;
+        this.startPrice = currentPrice;
         this.currentPrice = currentPrice;
     }
 
-    public BidStatus getBidStatus() {
+    public synchronized BidStatus getBidStatus() {
         return bidStatus;
     }
 
@@ -60,20 +58,26 @@ public class Bidding {
         return item;
     }
 
-    public Date getDueDate() {
+    public Integer getStartPrice() {
+        return startPrice;
+    }
+
+    public synchronized Date getDueDate() {
         return dueDate;
     }
 
-    public Set<Bid> getBids() {
-        return bids;
+    public synchronized Collection<Bid> getBids() {
+        return new ArrayDeque<>(bids);
     }
 
-    public void addBid(Bid bid) {
-        this.getBids().add(bid);
-        // Just update the price if the bidding is not SOLD or EXPIRED
-        if (!bidStatus.equals(BidStatus.SOLD) || !bidStatus.equals(BidStatus.EXPIRED)) {
-            this.currentPrice = getCurrentPrice() + bid.getValue();
+    public synchronized void addBid(Bid bid) {
+        expireIfDue();
+        // Just accept the bid if the bidding is not SOLD or EXPIRED
+        if (bidStatus.equals(BidStatus.SOLD) || bidStatus.equals(BidStatus.EXPIRED)) {
+            return;
         }
+        this.bids.addFirst(bid);
+        this.currentPrice = getCurrentPrice() + bid.getValue();
         // Update the status and due date if the bidding had not started yet
         if (getBidStatus().equals(BidStatus.NOT_STARTED)) {
             this.bidStatus = BidStatus.STARTED;
@@ -86,24 +90,43 @@ public class Bidding {
         }
     }
 
-    public void expire() {
+    public synchronized void expire() {
         this.bidStatus = BidStatus.EXPIRED;
     }
 
-    public Integer getCurrentPrice() {
+    // expire the Bidding if there's no more seconds left for the due date
+    public synchronized void expireIfDue() {
+        Integer seconds = getSecondsLeft();
+        if (seconds != null && seconds <= 0) {
+            expire();
+        }
+    }
+
+    public synchronized Integer getCurrentPrice() {
         return currentPrice;
     }
 
     // Sell the item using its item "buy now" price
-    public void buyItNow() {
+    public synchronized void buyItNow() {
+        expireIfDue();
         if (getBidStatus().equals(BidStatus.STARTED) || getBidStatus().equals(BidStatus.NOT_STARTED)) {
             bidStatus = BidStatus.SOLD;
             currentPrice = item.getBuyNowPrice();
         }
     }
 
+    // Restart the bidding from the start price, with no bids, under the same monitor as the bids,
+    // so that a bid is either added before the reset, or after it, to the restarted bidding
+    public synchronized void reset() {
+        bids.clear();
+        currentPrice = startPrice;
+        bidStatus = BidStatus.NOT_STARTED;
+        dueDate = null;
+        secondsLeft = null;
+    }
+
     // calculate how much seconds left to the bidding to become EXPIRED
-    public Integer getSecondsLeft() {
+    public synchronized Integer getSecondsLeft() {
         if (getBidStatus().equals(BidStatus.STARTED)) {
             Calendar now = new GregorianCalendar();
             secondsLeft = (int) ((getDueDate().getTime() - now.getTime().getTime()) / 1000L);
@@ -16,25 +16,55 @@
  */
 package org.jboss.quickstarts.websocket.model;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// This class holds the Bidding of each item of the catalogue, keyed by the item id. Each Bidding guards its own
+// state, thus the biddings of different items are updated concurrently, with no global lock.
 public class BiddingFactory {
 
-    private static Bidding bidding;
+    // the id of the item whose Bidding is used when no item is specified
+    public static final String DEFAULT_ITEM_ID = "1";
 
-    // obtain a singleton instance of the Bidding
-    public static synchronized Bidding getBidding() {
-        if (bidding == null) {
-            resetBidding();
-        }
-        // expire the Bidding if there's no more seconds left for the due date
-        if (bidding.getSecondsLeft() != null && bidding.getSecondsLeft() <= 0) {
-            bidding.expire();
+    private static final ConcurrentMap<String, Bidding> biddings = new ConcurrentHashMap<>();
+
+    // the catalogue, a bidding is opened for each item
+    static {
+        openBidding(new Item(DEFAULT_ITEM_ID, "1 Red Fedora Hat", "A beautiful red fedora hat that makes you charming!", 1000, "/resources/gfx/redfedora1.jpg"), 100);
+        openBidding(new Item("2", "2 Red Fedora Hats", "A pair of red fedora hats, one for you and one for a friend!", 1800, "/resources/gfx/redfedora1.jpg"), 180);
+        openBidding(new Item("3", "1 Signed Red Fedora Hat", "A red fedora hat signed by its designer, a collector's item!", 2500, "/resources/gfx/redfedora1.jpg"), 250);
+    }
+
+    // creates a new bidding for the item, unless there is one already
+    private static void openBidding(Item item, Integer startPrice) {
+        biddings.computeIfAbsent(item.getId(), id -> new Bidding(item, startPrice));
+    }
+
+    // obtain the instance of the default item Bidding
+    public static Bidding getBidding() {
+        return getBidding(DEFAULT_ITEM_ID);
+    }
+
+    // obtain the Bidding of the item with the specified id, or null if there is no such item
+    public static Bidding getBidding(String itemId) {
+        Bidding bidding = biddings.get(itemId);
+        if (bidding != null) {
+            bidding.expireIfDue();
         }
         return bidding;
     }
 
-    // creates a new bidding
-    public static synchronized void resetBidding() {
-        Item item = new Item("1 Red Fedora Hat", "A beautiful red fedora hat that makes you charming!", 1000, "/resources/gfx/redfedora1.jpg");
-        bidding = new Bidding(item, 100);
+    // restarts the bidding of the default item
+    public static void resetBidding() {
+        resetBidding(DEFAULT_ITEM_ID);
+    }
+
+    // restarts the bidding of the item with the specified id, if there is such item. The Bidding is reset in place,
+    // not replaced, so that a bid added concurrently to the instance already obtained is not lost
+    public static void resetBidding(String itemId) {
+        Bidding bidding = biddings.get(itemId);
+        if (bidding != null) {
+            bidding.reset();
+        }
     }
 }
@@ -19,6 +19,8 @@ package org.jboss.quickstarts.websocket.model;
 //This class represents a Item that is being offered
 public class Item {
 
+    private String id;
+
     private String title;
 
     private String description;
@@ -27,13 +29,18 @@ public class Item {
 
     private String imagePath;
 
-    public Item(String title, String description, Integer buyNowPrice, String imagePath) {
+    public Item(String id, String title, String description, Integer buyNowPrice, String imagePath) {
+        this.id = id;
         this.title = title;
         this.description = description;
         this.buyNowPrice = buyNowPrice;
         this.imagePath = imagePath;
     }
 
+    public String getId() {
+        return id;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -112,7 +112,7 @@ function openWebSocket() {
     }
     var wsProtocol = window.location.protocol == "https:" ? "wss" : "ws";
     var wsurl = wsProtocol + "://" + loc.hostname + ':' + port + loc.pathname
-            + "/../bidsocket";
+            + "/../bidsocket" + loc.search;
     wsocket = new WebSocket(wsurl);
     wsocket.onmessage = function(evt) {
         var json = JSON.parse(evt.data);
@@ -45,9 +45,13 @@ import org.junit.jupiter.api.Test;
 public class BidWebSocketEndpointIT {
 
     protected URI getWebSocketEndpoint() {
+        return getWebSocketEndpoint("");
+    }
+
+    protected URI getWebSocketEndpoint(String query) {
         String host = getServerHost();
         try {
-            return new URI(host + "/websocket-endpoint/bidsocket");
+            return new URI(host + "/websocket-endpoint/bidsocket" + query);
         } catch (URISyntaxException ex) {
             throw new RuntimeException(ex);
         }
@@ -100,16 +104,53 @@ public class BidWebSocketEndpointIT {
         Assertions.assertTrue(webSocket.isInputClosed(), "Connection should be closed");
     }
 
+    @Test
+    public void testItemSubscription() throws Exception {
+        long wait = 2000;
+        EchoListener listener = new EchoListener();
+        WebSocket webSocket = HttpClient.newHttpClient()
+                .newWebSocketBuilder()
+                .buildAsync(getWebSocketEndpoint("?itemId=2"), listener)
+                .join();
+
+        Assertions.assertTrue(listener.isConnected(), "Connection should be opened");
+
+        // the session is notified each second of the bidding of the item it opened
+        Thread.sleep(wait);
+        Assertions.assertTrue(listener.getMessageCount() > 0, "Bidding of item 2 should be notified");
+        JsonObject biddingMessage = jsonFromString(listener.getMessage());
+        Assertions.assertEquals("2", biddingMessage.getJsonObject("item").getString("id"));
+
+        // once unsubscribed, after any notification already in flight, no more are received
+        sendWebSocketMessage(webSocket, "unsubscribe", null, "2");
+        Thread.sleep(wait);
+        int messageCount = listener.getMessageCount();
+        Thread.sleep(wait);
+        Assertions.assertEquals(messageCount, listener.getMessageCount(), "Unsubscribed item 2 should not be notified");
+
+        webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "Done");
+        Thread.sleep(wait);
+        Assertions.assertFalse(listener.isConnected(), "Connection should be closed");
+        webSocket.abort();
+    }
+
     private void sendWebSocketMessage(WebSocket webSocket, String command) {
         sendWebSocketMessage(webSocket, command, null);
     }
 
     private void sendWebSocketMessage(WebSocket webSocket, String command, Integer bidValue) {
+        sendWebSocketMessage(webSocket, command, bidValue, null);
+    }
+
+    private void sendWebSocketMessage(WebSocket webSocket, String command, Integer bidValue, String itemId) {
         JsonObjectBuilder jsonBuilder = Json.createObjectBuilder()
                 .add("command", command);
         if (bidValue != null) {
             jsonBuilder.add("bidValue", bidValue);
         }
+        if (itemId != null) {
+            jsonBuilder.add("itemId", itemId);
+        }
         StringWriter stWriter = new StringWriter();
         JsonWriter jsonWriter = Json.createWriter(stWriter);
         jsonWriter.writeObject(jsonBuilder.build());
@@ -22,6 +22,7 @@ package org.jboss.quickstarts.websocket_endpoint;
 
 import java.net.http.WebSocket;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,6 +36,7 @@ public class EchoListener implements WebSocket.Listener {
     private boolean connected = false;
     private StringBuilder buffer = new StringBuilder();
     private String message = null;
+    private final AtomicInteger messageCount = new AtomicInteger();
 
     @Override
     public void onOpen(WebSocket webSocket) {
@@ -51,6 +53,7 @@ public class EchoListener implements WebSocket.Listener {
         if(last) {
             message = buffer.toString();
             buffer = new StringBuilder();
+            messageCount.incrementAndGet();
         }
         return WebSocket.Listener.super.onText(webSocket, data, last);
     }
@@ -59,6 +62,10 @@ public class EchoListener implements WebSocket.Listener {
         return message;
     }
 
+    public int getMessageCount() {
+        return messageCount.get();
+    }
+
     @Override
     public void onError(WebSocket webSocket, Throwable error) {
         logger.log(Level.SEVERE, "Error!" + webSocket.toString(), error);